@@ -0,0 +1,110 @@
+package com.mindex.challenge.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/*
+  Per-request cost of the logging done on the reportingStructure path, in an isolated logback
+  context writing to a discarding stream, so only formatting/queueing/filtering is measured:
+
+    OFF          logger level above DEBUG; what production pays
+    SYNC         formatted on the calling thread (the old console setup)
+    ASYNC        enqueued to the AsyncAppender used by logback-spring.xml
+    RATE_LIMITED ASYNC behind RateLimitingTurboFilter at 50/s, i.e. almost every call denied
+
+  Run with -t to see contention on the async queue and the rate limiter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoggingBenchmark {
+
+    public enum Sink { OFF, SYNC, ASYNC, RATE_LIMITED }
+
+    @Param({"OFF", "SYNC", "ASYNC", "RATE_LIMITED"})
+    public Sink sink;
+
+    private LoggerContext context;
+    private org.slf4j.Logger log;
+    private final String employeeId = UUID.randomUUID().toString();
+    private final int numberOfReports = 12_345;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new LoggerContext();
+        context.start();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d %5p [%t] %logger{39} : %m %kvp%n");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> output = new OutputStreamAppender<>();
+        output.setContext(context);
+        output.setEncoder(encoder);
+        output.setOutputStream(OutputStream.nullOutputStream());
+        output.start();
+
+        Appender<ILoggingEvent> appender = output;
+        if (sink == Sink.ASYNC || sink == Sink.RATE_LIMITED) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(8192);
+            async.setNeverBlock(true);
+            async.addAppender(output);
+            async.start();
+            appender = async;
+        }
+
+        if (sink == Sink.RATE_LIMITED) {
+            RateLimitingTurboFilter filter = new RateLimitingTurboFilter();
+            filter.setContext(context);
+            filter.setLoggerName("com.mindex");
+            filter.setPermitsPerSecond(50);
+            filter.start();
+            context.addTurboFilter(filter);
+        }
+
+        Logger logger = context.getLogger("com.mindex.challenge.service.impl.EmployeeServiceImpl");
+        logger.setAdditive(false);
+        logger.addAppender(appender);
+        logger.setLevel(sink == Sink.OFF ? ch.qos.logback.classic.Level.INFO : ch.qos.logback.classic.Level.DEBUG);
+        log = logger;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.stop();
+    }
+
+    // What EmployeeServiceImpl.getReportingStructure does per call
+    @Benchmark
+    public void structuredDebug() {
+        if (log.isDebugEnabled()) {
+            log.atDebug()
+                    .addKeyValue("employeeId", employeeId)
+                    .addKeyValue("reports", numberOfReports)
+                    .log("ReportingStructure generated");
+        }
+    }
+
+    // The two INFO lines it used to write, for comparison
+    @Benchmark
+    public void formattedInfoPair() {
+        log.info("Fetching ReportingStructure for employeeId: {}", employeeId);
+        log.info("ReportingStructure generated for {} with {} reports", employeeId, numberOfReports);
+    }
+}
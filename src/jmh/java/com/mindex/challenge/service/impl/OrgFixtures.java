@@ -0,0 +1,77 @@
+package com.mindex.challenge.service.impl;
+
+import com.mindex.challenge.data.Employee;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/*
+  Synthetic org charts for the benchmarks. Employees are returned in the same shape the repository
+  holds them in: directReports are {employeeId} stubs, and the first element is the root.
+
+  WIDE      everyone reports straight to the root
+  BALANCED  complete tree with a fan-out of 8
+  DEEP      chains of DEEP_CHAIN_LENGTH managers hanging off the root; depth stays bounded so
+            recursive traversal and Jackson nesting limits are not what gets measured
+ */
+public final class OrgFixtures {
+
+    public enum Shape { WIDE, BALANCED, DEEP }
+
+    static final int BALANCED_FAN_OUT = 8;
+    static final int DEEP_CHAIN_LENGTH = 256;
+
+    private static final String[] FIRST_NAMES = {"John", "Paul", "Ringo", "George", "Pete", "Yoko", "Linda", "Cynthia"};
+    private static final String[] LAST_NAMES = {"Lennon", "McCartney", "Starr", "Harrison", "Best", "Ono", "Eastman"};
+    private static final String[] DEPARTMENTS = {"Engineering", "Sales", "Finance", "Marketing", "Operations", "Legal"};
+    private static final String[] POSITIONS = {"Developer I", "Developer II", "Developer V", "Manager", "Director", "Analyst"};
+
+    private OrgFixtures() {
+    }
+
+    static List<Employee> generate(Shape shape, int size, long seed) {
+        Random random = new Random(seed);
+        List<Employee> employees = new ArrayList<>(size);
+        List<List<Employee>> reports = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            Employee employee = new Employee();
+            employee.setEmployeeId(new UUID(random.nextLong(), random.nextLong()).toString());
+            employee.setFirstName(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+            employee.setLastName(LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+            employee.setDepartment(DEPARTMENTS[random.nextInt(DEPARTMENTS.length)]);
+            employee.setPosition(POSITIONS[random.nextInt(POSITIONS.length)]);
+            employee.setVersion(0L);
+            employees.add(employee);
+            reports.add(new ArrayList<>());
+
+            if (i > 0) {
+                Employee stub = new Employee();
+                stub.setEmployeeId(employee.getEmployeeId());
+                reports.get(parentOf(shape, i)).add(stub);
+            }
+        }
+
+        for (int i = 0; i < size; i++) {
+            if (!reports.get(i).isEmpty()) {
+                employees.get(i).setDirectReports(reports.get(i));
+            }
+        }
+        return employees;
+    }
+
+    static int parentOf(Shape shape, int index) {
+        switch (shape) {
+            case WIDE:
+                return 0;
+            case BALANCED:
+                return (index - 1) / BALANCED_FAN_OUT;
+            case DEEP:
+                return (index - 1) % DEEP_CHAIN_LENGTH == 0 ? 0 : index - 1;
+            default:
+                throw new IllegalArgumentException("Unknown shape " + shape);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.mindex.challenge.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mindex.challenge.data.Employee;
+import com.mindex.challenge.data.EmployeeDTO;
+import com.mindex.challenge.data.ReportingStructure;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+  Pure in-memory cost of the reporting-structure pipeline for the CEO of a synthetic org:
+  building the org graph, counting reports, building the DTO tree and serializing it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportingStructureBenchmark {
+
+    @Param({"WIDE", "BALANCED", "DEEP"})
+    public OrgFixtures.Shape shape;
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private List<Employee> employees;
+    private OrgGraph.Snapshot snapshot;
+    private Employee root;
+    private int rootRow;
+    private ReportingStructure prebuilt;
+    private ObjectMapper objectMapper;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        employees = OrgFixtures.generate(shape, size, 42L);
+        snapshot = new OrgGraph.Snapshot(employees);
+        root = employees.get(0);
+        rootRow = snapshot.indexOf(root.getEmployeeId());
+        objectMapper = new ObjectMapper();
+        prebuilt = buildReportingStructure();
+    }
+
+    @Benchmark
+    public OrgGraph.Snapshot buildOrgGraph() {
+        return new OrgGraph.Snapshot(employees);
+    }
+
+    @Benchmark
+    public int countReports() {
+        return EmployeeServiceImpl.countReports(snapshot, rootRow);
+    }
+
+    @Benchmark
+    public EmployeeDTO convertToDTO() {
+        return EmployeeServiceImpl.convertToDTO(snapshot, rootRow);
+    }
+
+    @Benchmark
+    public ReportingStructure buildReportingStructure() {
+        int numberOfReports = EmployeeServiceImpl.countReports(snapshot, rootRow);
+        EmployeeDTO dto = EmployeeServiceImpl.convertToDTO(snapshot, rootRow);
+        return new ReportingStructure(dto, numberOfReports);
+    }
+
+    @Benchmark
+    public byte[] serializeReportingStructure() throws Exception {
+        return objectMapper.writeValueAsBytes(prebuilt);
+    }
+
+    // A fresh snapshot each time so the memoized value is not what gets measured; subtract buildOrgGraph
+    @Benchmark
+    public long subtreeVersion() {
+        return new OrgGraph.Snapshot(employees).subtreeVersion(root.getEmployeeId());
+    }
+}
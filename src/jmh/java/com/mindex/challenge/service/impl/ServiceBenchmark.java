@@ -0,0 +1,123 @@
+package com.mindex.challenge.service.impl;
+
+import com.mindex.challenge.ChallengeApplication;
+import com.mindex.challenge.dao.CompensationRepository;
+import com.mindex.challenge.dao.EmployeeRepository;
+import com.mindex.challenge.data.Compensation;
+import com.mindex.challenge.data.Employee;
+import com.mindex.challenge.data.ReportingStructure;
+import com.mindex.challenge.service.CompensationService;
+import com.mindex.challenge.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+  Service and repository hot paths against the real Spring context and the in-memory Mongo,
+  loaded with a balanced synthetic org.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeService employeeService;
+    private CompensationService compensationService;
+    private EmployeeRepository employeeRepository;
+    private CompensationRepository compensationRepository;
+
+    private String[] employeeIds;
+    private String rootId;
+    private String managerId;
+    private int nextCompensation;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(ChallengeApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--logging.level.com.mindex=WARN");
+
+        employeeService = context.getBean(EmployeeService.class);
+        compensationService = context.getBean(CompensationService.class);
+        employeeRepository = context.getBean(EmployeeRepository.class);
+        compensationRepository = context.getBean(CompensationRepository.class);
+
+        List<Employee> employees = OrgFixtures.generate(OrgFixtures.Shape.BALANCED, size, 42L);
+        employeeRepository.insert(employees);
+        context.getBean(OrgGraph.class).invalidate();
+
+        employeeIds = employees.stream().map(Employee::getEmployeeId).toArray(String[]::new);
+        rootId = employeeIds[0];
+        // A second-level manager: roughly size / 64 people below
+        managerId = employeeIds[1 + OrgFixtures.BALANCED_FAN_OUT];
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        context.close();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetCompensation() {
+        compensationRepository.deleteAll();
+        nextCompensation = 0;
+    }
+
+    @Benchmark
+    public Employee employeeRead() {
+        return employeeService.read(randomEmployeeId());
+    }
+
+    @Benchmark
+    public ReportingStructure reportingStructureRoot() {
+        return employeeService.getReportingStructure(rootId);
+    }
+
+    @Benchmark
+    public ReportingStructure reportingStructureManager() {
+        return employeeService.getReportingStructure(managerId);
+    }
+
+    @Benchmark
+    public Employee repositoryFindByEmployeeId() {
+        return employeeRepository.findByEmployeeId(randomEmployeeId());
+    }
+
+    @Benchmark
+    public List<Employee> repositoryFindAll() {
+        return employeeRepository.findAll();
+    }
+
+    // Each create needs an employee without compensation, so run a fixed batch per iteration
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 3, batchSize = 500)
+    @Measurement(iterations = 10, batchSize = 500)
+    public Compensation compensationCreate() {
+        Employee reference = new Employee();
+        reference.setEmployeeId(employeeIds[nextCompensation++ % employeeIds.length]);
+
+        Compensation compensation = new Compensation();
+        compensation.setEmployee(reference);
+        compensation.setSalary(100000);
+        compensation.setEffectiveDate(LocalDate.now());
+        return compensationService.create(compensation);
+    }
+
+    private String randomEmployeeId() {
+        return employeeIds[ThreadLocalRandom.current().nextInt(employeeIds.length)];
+    }
+}
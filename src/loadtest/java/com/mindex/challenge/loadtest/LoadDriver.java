@@ -0,0 +1,285 @@
+package com.mindex.challenge.loadtest;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+  Closed-loop HTTP load driver for a running instance. --concurrency workers each pick an
+  operation from --mix, send it, wait for the answer and go again, until --duration has passed.
+  Samples from the first --warmup are discarded. At the end it prints throughput, error count
+  and latency percentiles per operation.
+
+  Employee ids are sampled from the generated employee file. Compensation operations use the
+  compensation file and are skipped if that file is not given.
+
+  Usage: LoadDriver --base-url=http://localhost:8080 --employees=build/generated/employee_database.json
+                    --compensation=build/generated/compensation_database.json
+                    --concurrency=32 --duration=60s --warmup=10s
+                    --mix=employeeRead:60,reportingStructure:10,employeePatch:10,compensationRead:10,compensationUpdate:10
+ */
+public class LoadDriver {
+
+    enum Operation { employeeRead, reportingStructure, employeePatch, compensationRead, compensationUpdate }
+
+    private static final String DEFAULT_MIX =
+            "employeeRead:60,reportingStructure:10,employeePatch:10,compensationRead:10,compensationUpdate:10";
+    private static final String[] POSITIONS = {"Developer I", "Developer II", "Senior Developer", "Manager"};
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final String[] employeeIds;
+    private final String[] compensatedIds;
+    private final Operation[] weightedMix;
+
+    LoadDriver(String baseUrl, String[] employeeIds, String[] compensatedIds, Operation[] weightedMix, int concurrency) {
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(Math.max(2, concurrency / 4)))
+                .build();
+        this.baseUrl = baseUrl;
+        this.employeeIds = employeeIds;
+        this.compensatedIds = compensatedIds;
+        this.weightedMix = weightedMix;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = Args.parse(args);
+        String[] employeeIds = readEmployeeIds(new File(options.getOrDefault("employees",
+                "build/generated/employee_database.json")), false);
+        String[] compensatedIds = options.containsKey("compensation")
+                ? readEmployeeIds(new File(options.get("compensation")), true)
+                : new String[0];
+
+        int concurrency = Args.intValue(options, "concurrency", 32);
+        Operation[] mix = parseMix(options.getOrDefault("mix", DEFAULT_MIX), compensatedIds.length > 0);
+        LoadDriver driver = new LoadDriver(options.getOrDefault("base-url", "http://localhost:8080"),
+                employeeIds, compensatedIds, mix, concurrency);
+
+        Duration warmup = Args.durationValue(options, "warmup", Duration.ofSeconds(10));
+        Duration duration = Args.durationValue(options, "duration", Duration.ofSeconds(60));
+        System.out.printf("Driving %s with %d workers for %s (+%s warm-up) over %d employees%n",
+                driver.baseUrl, concurrency, duration, warmup, employeeIds.length);
+
+        Map<Operation, LatencyRecorder> results = driver.run(concurrency, warmup, duration);
+        report(results, duration);
+        System.exit(0);
+    }
+
+    Map<Operation, LatencyRecorder> run(int concurrency, Duration warmup, Duration duration) throws InterruptedException {
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long stopAt = measureFrom + duration.toNanos();
+
+        List<Map<Operation, LatencyRecorder>> perWorker = new ArrayList<>();
+        List<Thread> workers = new ArrayList<>();
+        for (int w = 0; w < concurrency; w++) {
+            Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+            for (Operation operation : Operation.values()) {
+                recorders.put(operation, new LatencyRecorder());
+            }
+            perWorker.add(recorders);
+
+            Thread worker = new Thread(() -> work(recorders, measureFrom, stopAt), "load-worker-" + w);
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        Map<Operation, LatencyRecorder> merged = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            LatencyRecorder total = new LatencyRecorder();
+            for (Map<Operation, LatencyRecorder> recorders : perWorker) {
+                total.merge(recorders.get(operation));
+            }
+            merged.put(operation, total);
+        }
+        return merged;
+    }
+
+    private void work(Map<Operation, LatencyRecorder> recorders, long measureFrom, long stopAt) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            long start = System.nanoTime();
+            if (start >= stopAt) {
+                return;
+            }
+
+            Operation operation = weightedMix[random.nextInt(weightedMix.length)];
+            boolean ok;
+            try {
+                HttpResponse<Void> response = client.send(request(operation, random), HttpResponse.BodyHandlers.discarding());
+                ok = response.statusCode() < 400;
+            } catch (IOException e) {
+                ok = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            long end = System.nanoTime();
+            if (start >= measureFrom) {
+                recorders.get(operation).record(end - start, ok);
+            }
+        }
+    }
+
+    private HttpRequest request(Operation operation, ThreadLocalRandom random) {
+        String employeeId = employeeIds[random.nextInt(employeeIds.length)];
+        switch (operation) {
+            case employeeRead:
+                return get("/employee/" + employeeId);
+            case reportingStructure:
+                return get("/reportingStructure/" + employeeId);
+            case employeePatch:
+                return send("PATCH", "/employee/" + employeeId,
+                        "{\"position\":\"" + POSITIONS[random.nextInt(POSITIONS.length)] + "\"}");
+            case compensationRead:
+                return get("/compensation/" + compensatedIds[random.nextInt(compensatedIds.length)]);
+            case compensationUpdate:
+                String compensatedId = compensatedIds[random.nextInt(compensatedIds.length)];
+                return send("PUT", "/compensation", String.format(
+                        "{\"employee\":{\"employeeId\":\"%s\"},\"salary\":%d,\"effectiveDate\":\"%s\"}",
+                        compensatedId, 60000 + random.nextInt(200000), LocalDate.now()));
+            default:
+                throw new IllegalStateException("Unknown operation " + operation);
+        }
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30)).GET().build();
+    }
+
+    private HttpRequest send(String method, String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private static void report(Map<Operation, LatencyRecorder> results, Duration duration) {
+        double seconds = duration.toNanos() / 1e9;
+        System.out.printf("%-20s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+                "operation", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+
+        LatencyRecorder all = new LatencyRecorder();
+        for (Map.Entry<Operation, LatencyRecorder> entry : results.entrySet()) {
+            if (entry.getValue().count() == 0) continue;
+            printRow(entry.getKey().name(), entry.getValue(), seconds);
+            all.merge(entry.getValue());
+        }
+        printRow("total", all, seconds);
+    }
+
+    private static void printRow(String name, LatencyRecorder recorder, double seconds) {
+        recorder.sort();
+        System.out.printf("%-20s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name, recorder.count(), recorder.errors(), recorder.count() / seconds,
+                recorder.percentileMillis(50), recorder.percentileMillis(90), recorder.percentileMillis(99),
+                recorder.percentileMillis(99.9), recorder.percentileMillis(100));
+    }
+
+    private static Operation[] parseMix(String mix, boolean hasCompensation) {
+        List<Operation> weighted = new ArrayList<>();
+        for (String part : mix.split(",")) {
+            String[] kv = part.trim().split(":");
+            Operation operation = Operation.valueOf(kv[0]);
+            boolean needsCompensation = operation == Operation.compensationRead || operation == Operation.compensationUpdate;
+            if (needsCompensation && !hasCompensation) continue;
+
+            int weight = kv.length > 1 ? Integer.parseInt(kv[1]) : 1;
+            for (int i = 0; i < weight; i++) {
+                weighted.add(operation);
+            }
+        }
+        if (weighted.isEmpty()) {
+            throw new IllegalArgumentException("Mix selects no runnable operations: " + mix);
+        }
+        return weighted.toArray(new Operation[0]);
+    }
+
+    // Streams the file and collects every top-level employeeId (or employee.employeeId for compensation)
+    static String[] readEmployeeIds(File file, boolean nestedInEmployee) throws IOException {
+        List<String> ids = new ArrayList<>();
+        try (JsonParser parser = new JsonFactory().createParser(file)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException(file + " is not a JSON array");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    parser.nextToken();
+                    if (!nestedInEmployee && field.equals("employeeId")) {
+                        ids.add(parser.getText());
+                    } else if (nestedInEmployee && field.equals("employee")) {
+                        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                            String nested = parser.getCurrentName();
+                            parser.nextToken();
+                            if (nested.equals("employeeId")) ids.add(parser.getText());
+                            else parser.skipChildren();
+                        }
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            }
+        }
+        return ids.toArray(new String[0]);
+    }
+
+    // Per-worker latency samples; only merged and sorted once the run is over
+    static final class LatencyRecorder {
+        private long[] samples = new long[1024];
+        private int count;
+        private long errors;
+
+        void record(long nanos, boolean ok) {
+            if (count == samples.length) {
+                samples = Arrays.copyOf(samples, samples.length * 2);
+            }
+            samples[count++] = nanos;
+            if (!ok) errors++;
+        }
+
+        void merge(LatencyRecorder other) {
+            if (count + other.count > samples.length) {
+                samples = Arrays.copyOf(samples, Math.max(samples.length * 2, count + other.count));
+            }
+            System.arraycopy(other.samples, 0, samples, count, other.count);
+            count += other.count;
+            errors += other.errors;
+        }
+
+        void sort() {
+            Arrays.sort(samples, 0, count);
+        }
+
+        int count() {
+            return count;
+        }
+
+        long errors() {
+            return errors;
+        }
+
+        double percentileMillis(double percentile) {
+            if (count == 0) return 0;
+            int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+            return samples[Math.max(0, Math.min(count - 1, index))] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.mindex.challenge.loadtest;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/*
+  Generates a synthetic org chart in the format DataBootstrap loads (an array of Employee with
+  directReports as {employeeId} stubs), plus a matching compensation file.
+
+  The tree is filled breadth-first. Each new employee becomes a manager with probability
+  --manager-ratio, or always if nobody else is left to take reports, as long as it is above
+  --max-depth. A manager takes between 1 and 2 * --fan-out - 1 reports. Everyone under a VP
+  inherits that VP's department. Titles and salary bands follow depth, with noise on salaries.
+
+  Attributes are derived from (seed, index), so only parent/depth/department arrays are kept in
+  memory and the output is streamed; a million employees fits comfortably in a small heap.
+
+  Usage: OrgChartGenerator --size=100000 --fan-out=6 --max-depth=8 --manager-ratio=0.2 --seed=42
+                           --out=build/generated/employee_database.json
+                           --compensation-out=build/generated/compensation_database.json
+                           --compensation-ratio=1.0
+ */
+public class OrgChartGenerator {
+
+    private static final String[] DEPARTMENTS = {
+            "Engineering", "Sales", "Marketing", "Finance", "Operations", "Legal", "Human Resources", "Support"};
+    private static final String[] FIRST_NAMES = {
+            "John", "Paul", "Ringo", "George", "Pete", "Yoko", "Linda", "Cynthia", "Brian", "Mal", "Neil", "Maureen",
+            "Pattie", "Stuart", "Billy", "Astrid", "Derek", "Klaus", "Mary", "Julian"};
+    private static final String[] LAST_NAMES = {
+            "Lennon", "McCartney", "Starr", "Harrison", "Best", "Ono", "Eastman", "Powell", "Epstein", "Evans",
+            "Aspinall", "Cox", "Boyd", "Sutcliffe", "Preston", "Kirchherr", "Taylor", "Voormann", "Martin", "Lennox"};
+    private static final String[] MANAGER_TITLES = {
+            "Chief Executive Officer", "Vice President", "Director", "Senior Manager", "Manager"};
+    private static final String[] IC_TITLES = {
+            "Associate", "Specialist I", "Specialist II", "Senior Specialist", "Principal"};
+    private static final double[] MANAGER_BASE_SALARY = {450000, 260000, 190000, 160000, 135000};
+    private static final double[] IC_BASE_SALARY = {60000, 75000, 92000, 115000, 150000};
+
+    private final int size;
+    private final int fanOut;
+    private final int maxDepth;
+    private final double managerRatio;
+    private final long seed;
+
+    private final int[] parent;
+    private final byte[] depth;
+    private final byte[] department;
+    private final boolean[] manager;
+    private int[] childOffsets;
+    private int[] children;
+
+    OrgChartGenerator(int size, int fanOut, int maxDepth, double managerRatio, long seed) {
+        if (size < 1 || fanOut < 1 || maxDepth < 1 || maxDepth > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("size, fan-out and max-depth must be positive (max-depth <= 127)");
+        }
+        this.size = size;
+        this.fanOut = fanOut;
+        this.maxDepth = maxDepth;
+        this.managerRatio = managerRatio;
+        this.seed = seed;
+        this.parent = new int[size];
+        this.depth = new byte[size];
+        this.department = new byte[size];
+        this.manager = new boolean[size];
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = Args.parse(args);
+        OrgChartGenerator generator = new OrgChartGenerator(
+                Args.intValue(options, "size", 10000),
+                Args.intValue(options, "fan-out", 6),
+                Args.intValue(options, "max-depth", 8),
+                Args.doubleValue(options, "manager-ratio", 0.2),
+                Args.longValue(options, "seed", 42L));
+
+        long start = System.nanoTime();
+        generator.buildHierarchy();
+
+        File employeesOut = new File(options.getOrDefault("out", "build/generated/employee_database.json"));
+        generator.writeEmployees(employeesOut);
+
+        String compensationPath = options.getOrDefault("compensation-out", "build/generated/compensation_database.json");
+        if (!compensationPath.isEmpty()) {
+            generator.writeCompensation(new File(compensationPath), Args.doubleValue(options, "compensation-ratio", 1.0));
+        }
+
+        System.out.printf("Generated %d employees (max depth %d) in %d ms -> %s%n",
+                generator.size, generator.observedMaxDepth(), (System.nanoTime() - start) / 1_000_000, employeesOut);
+    }
+
+    void buildHierarchy() {
+        SplittableRandom random = new SplittableRandom(seed);
+        Deque<int[]> openManagers = new ArrayDeque<>(); // {index, remaining slots}
+
+        parent[0] = -1;
+        manager[0] = true;
+        openManagers.add(new int[]{0, slots(random)});
+
+        for (int i = 1; i < size; i++) {
+            int[] head = openManagers.peek();
+            if (head == null) {
+                // Everyone open is at max depth; widen the root rather than exceed it
+                head = new int[]{0, 1};
+                openManagers.add(head);
+            }
+
+            int p = head[0];
+            parent[i] = p;
+            depth[i] = (byte) (depth[p] + 1);
+            department[i] = depth[i] == 1 ? (byte) ((i - 1) % DEPARTMENTS.length) : department[p];
+            if (--head[1] == 0) {
+                openManagers.poll();
+            }
+
+            boolean canManage = depth[i] < maxDepth;
+            if (canManage && (openManagers.isEmpty() || random.nextDouble() < managerRatio)) {
+                manager[i] = true;
+                openManagers.add(new int[]{i, slots(random)});
+            }
+        }
+
+        buildChildIndex();
+    }
+
+    private int slots(SplittableRandom random) {
+        return 1 + random.nextInt(2 * fanOut - 1);
+    }
+
+    // CSR layout: children of i are children[childOffsets[i] .. childOffsets[i + 1])
+    private void buildChildIndex() {
+        childOffsets = new int[size + 1];
+        for (int i = 1; i < size; i++) {
+            childOffsets[parent[i] + 1]++;
+        }
+        for (int i = 0; i < size; i++) {
+            childOffsets[i + 1] += childOffsets[i];
+        }
+        children = new int[Math.max(0, size - 1)];
+        int[] cursor = childOffsets.clone();
+        for (int i = 1; i < size; i++) {
+            children[cursor[parent[i]]++] = i;
+        }
+    }
+
+    void writeEmployees(File file) throws IOException {
+        mkdirs(file);
+        try (JsonGenerator json = new JsonFactory().createGenerator(file, JsonEncoding.UTF8)) {
+            json.useDefaultPrettyPrinter();
+            json.writeStartArray();
+            for (int i = 0; i < size; i++) {
+                SplittableRandom random = attributes(i);
+                json.writeStartObject();
+                json.writeStringField("employeeId", employeeId(i));
+                json.writeStringField("firstName", FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+                json.writeStringField("lastName", LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+                json.writeStringField("position", position(i, random));
+                json.writeStringField("department", i == 0 ? "Executive" : DEPARTMENTS[department[i]]);
+                if (childOffsets[i] < childOffsets[i + 1]) {
+                    json.writeArrayFieldStart("directReports");
+                    for (int c = childOffsets[i]; c < childOffsets[i + 1]; c++) {
+                        json.writeStartObject();
+                        json.writeStringField("employeeId", employeeId(children[c]));
+                        json.writeEndObject();
+                    }
+                    json.writeEndArray();
+                }
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+        }
+    }
+
+    void writeCompensation(File file, double ratio) throws IOException {
+        mkdirs(file);
+        SplittableRandom sample = new SplittableRandom(seed ^ 0x5DEECE66DL);
+        LocalDate today = LocalDate.now();
+
+        try (JsonGenerator json = new JsonFactory().createGenerator(file, JsonEncoding.UTF8)) {
+            json.useDefaultPrettyPrinter();
+            json.writeStartArray();
+            for (int i = 0; i < size; i++) {
+                if (sample.nextDouble() >= ratio) continue;
+
+                SplittableRandom random = attributes(i);
+                random.nextInt(FIRST_NAMES.length);
+                random.nextInt(LAST_NAMES.length);
+                int band = band(i, random);
+                double base = manager[i] ? MANAGER_BASE_SALARY[band] : IC_BASE_SALARY[band];
+                double salary = Math.round(base * (0.85 + random.nextDouble() * 0.3) / 100) * 100;
+
+                json.writeStartObject();
+                json.writeObjectFieldStart("employee");
+                json.writeStringField("employeeId", employeeId(i));
+                json.writeEndObject();
+                json.writeNumberField("salary", salary);
+                json.writeStringField("effectiveDate", today.minusDays(random.nextInt(365)).toString());
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+        }
+    }
+
+    private String position(int i, SplittableRandom random) {
+        int band = band(i, random);
+        return manager[i] ? MANAGER_TITLES[band] : IC_TITLES[band];
+    }
+
+    // Managers are banded by depth; individual contributors get a random seniority band
+    private int band(int i, SplittableRandom random) {
+        if (manager[i]) {
+            return Math.min(depth[i], MANAGER_TITLES.length - 1);
+        }
+        return random.nextInt(IC_TITLES.length);
+    }
+
+    private SplittableRandom attributes(int i) {
+        return new SplittableRandom(seed * 0x9E3779B97F4A7C15L + i);
+    }
+
+    String employeeId(int i) {
+        SplittableRandom random = new SplittableRandom(seed ^ (i * 0xBF58476D1CE4E5B9L));
+        return new UUID(random.nextLong(), random.nextLong()).toString();
+    }
+
+    int observedMaxDepth() {
+        int max = 0;
+        for (byte d : depth) max = Math.max(max, d);
+        return max;
+    }
+
+    private static void mkdirs(File file) throws IOException {
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir);
+        }
+    }
+}
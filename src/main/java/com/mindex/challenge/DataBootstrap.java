@@ -1,39 +1,79 @@
 package com.mindex.challenge;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mindex.challenge.dao.CompensationRepository;
 import com.mindex.challenge.dao.EmployeeRepository;
+import com.mindex.challenge.data.Compensation;
 import com.mindex.challenge.data.Employee;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @Component
 public class DataBootstrap {
-    private static final String DATASTORE_LOCATION = "/static/employee_database.json";
+    // Point these at files from the load-test OrgChartGenerator to boot with a large synthetic org
+    @Value("${challenge.bootstrap.employees:classpath:/static/employee_database.json}")
+    private String employeesLocation;
+
+    @Value("${challenge.bootstrap.compensation:}")
+    private String compensationLocation;
 
     @Autowired
     private EmployeeRepository employeeRepository;
 
+    @Autowired
+    private CompensationRepository compensationRepository;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ResourceLoader resourceLoader;
+
     @PostConstruct
     public void init() {
-        InputStream inputStream = this.getClass().getResourceAsStream(DATASTORE_LOCATION);
+        Employee[] employees = read(employeesLocation, Employee[].class);
 
-        Employee[] employees = null;
+        // One bulk insert rather than a round trip per employee
+        employeeRepository.insert(Arrays.asList(employees));
 
-        try {
-            employees = objectMapper.readValue(inputStream, Employee[].class);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+        if (!compensationLocation.isEmpty()) {
+            Map<String, Employee> byId = new HashMap<>(employees.length * 2);
+            for (Employee employee : employees) {
+                byId.put(employee.getEmployeeId(), employee);
+            }
+
+            List<Compensation> compensations = new ArrayList<>();
+            for (Compensation compensation : read(compensationLocation, Compensation[].class)) {
+                Employee employee = byId.get(compensation.getEmployee().getEmployeeId());
+                if (employee != null) {
+                    compensation.setEmployee(employee);
+                    compensation.setVersion(0L);
+                    compensations.add(compensation);
+                }
+            }
+            compensationRepository.insert(compensations);
         }
+    }
 
-        for (Employee employee : employees) {
-            employeeRepository.insert(employee);
+    private <T> T read(String location, Class<T> type) {
+        Resource resource = resourceLoader.getResource(location);
+
+        try (InputStream inputStream = resource.getInputStream()) {
+            return objectMapper.readValue(inputStream, type);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
         }
     }
 }
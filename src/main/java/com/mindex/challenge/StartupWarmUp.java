@@ -0,0 +1,204 @@
+package com.mindex.challenge;
+
+import com.mindex.challenge.replication.ReplicationFollower;
+import com.mindex.challenge.service.impl.EmployeeSearchIndex;
+import com.mindex.challenge.service.impl.OrgGraph;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+  Gets the instance hot before it takes traffic. Spring Boot only moves readiness to
+  ACCEPTING_TRAFFIC after every ApplicationRunner has returned, and reports REFUSING_TRAFFIC on
+  /actuator/health/readiness until then, so doing the work here keeps a load balancer away from
+  a cold instance without managing the probe state by hand.
+
+  The warm-up loads the org graph (with its subtree sizes and hierarchy) and the search index,
+  then sends challenge.warmup.requests synthetic GETs for /employee/{id}, /reportingStructure/{id}
+  and /employee/search over loopback, so the dispatcher, converters, filters and response cache
+  are loaded and JIT-compiled along the real request path. Ids are spread evenly over the org.
+  A follower first waits until it has caught up with its leader, since until then it has nothing
+  to warm. Everything stops at challenge.warmup.timeout-ms; a slow or failed warm-up is logged
+  and never fails startup.
+
+  Time from JVM start to ACCEPTING_TRAFFIC is published as challenge.startup.time-to-ready.
+ */
+@Component
+@ConditionalOnProperty(name = "challenge.warmup.enabled", havingValue = "true")
+public class StartupWarmUp implements ApplicationRunner {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StartupWarmUp.class);
+
+    // Sent as the admission client id so warm-up traffic is budgeted apart from real clients
+    static final String CLIENT_ID = "warm-up";
+
+    @Value("${challenge.warmup.requests:300}")
+    private int requests;
+
+    @Value("${challenge.warmup.samples:16}")
+    private int samples;
+
+    @Value("${challenge.warmup.timeout-ms:30000}")
+    private long timeoutMs;
+
+    @Value("${challenge.admission.client-header:X-Client-Id}")
+    private String clientHeader;
+
+    @Autowired
+    private OrgGraph orgGraph;
+
+    @Autowired
+    private EmployeeSearchIndex searchIndex;
+
+    @Autowired(required = false)
+    private ReplicationFollower follower;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private volatile long warmUpMs;
+    private volatile long timeToReadyMs;
+    private Counter succeeded;
+    private Counter failed;
+
+    @PostConstruct
+    public void registerMetrics() {
+        succeeded = Counter.builder("challenge.warmup.requests").tag("result", "ok").register(meterRegistry);
+        failed = Counter.builder("challenge.warmup.requests").tag("result", "failed").register(meterRegistry);
+        TimeGauge.builder("challenge.warmup.duration", this, TimeUnit.MILLISECONDS, warmUp -> warmUp.warmUpMs)
+                .register(meterRegistry);
+        TimeGauge.builder("challenge.startup.time-to-ready", this, TimeUnit.MILLISECONDS, warmUp -> warmUp.timeToReadyMs)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        try {
+            awaitReplica(deadline);
+            List<String[]> targets = preload();
+            exercise(targets, deadline);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            LOG.warn("Warm-up stopped early", e);
+        }
+        warmUpMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        LOG.info("Warm-up finished in {} ms ({} requests, {} failed)",
+                warmUpMs, (long) succeeded.count(), (long) failed.count());
+    }
+
+    @EventListener
+    public void onReadiness(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC && timeToReadyMs == 0) {
+            timeToReadyMs = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        }
+    }
+
+    public long getWarmUpMs() {
+        return warmUpMs;
+    }
+
+    public long getTimeToReadyMs() {
+        return timeToReadyMs;
+    }
+
+    private void awaitReplica(long deadline) throws InterruptedException {
+        if (follower == null) {
+            return;
+        }
+        while (!follower.isFresh()) {
+            if (System.nanoTime() > deadline) {
+                LOG.warn("Follower did not catch up with its leader before the warm-up timeout");
+                return;
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    // Loads the in-memory structures and picks up to `samples` rows as {employeeId, firstName}
+    private List<String[]> preload() {
+        OrgGraph.Snapshot graph = orgGraph.snapshot();
+        searchIndex.index();
+
+        List<String[]> targets = graph.read(() -> {
+            int size = graph.size();
+            int count = Math.min(samples, size);
+            List<String[]> picked = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int row = (int) ((long) i * size / count);
+                picked.add(new String[] {graph.employeeId(row), graph.firstName(row)});
+            }
+            return picked;
+        });
+
+        // The first placement computes subtree sizes and the hierarchy for every row
+        if (!targets.isEmpty()) {
+            graph.placement(targets.get(0)[0]);
+        }
+        return targets;
+    }
+
+    private void exercise(List<String[]> targets, long deadline) throws InterruptedException {
+        if (targets.isEmpty() || !(applicationContext instanceof WebServerApplicationContext web)
+                || web.getWebServer() == null || web.getWebServer().getPort() <= 0) {
+            return;
+        }
+
+        String base = "http://127.0.0.1:" + web.getWebServer().getPort();
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        for (int i = 0; i < requests && System.nanoTime() < deadline; i++) {
+            String[] target = targets.get((i / 3) % targets.size());
+            String path = switch (i % 3) {
+                case 0 -> "/employee/" + target[0];
+                case 1 -> "/reportingStructure/" + target[0];
+                default -> "/employee/search?q=" + (target[1] == null || target[1].isBlank()
+                        ? "a" : URLEncoder.encode(target[1], StandardCharsets.UTF_8));
+            };
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(base + path))
+                    .timeout(Duration.ofSeconds(5))
+                    .header(clientHeader, CLIENT_ID);
+            // Alternate so both the plain and the gzip response paths get compiled
+            if ((i / 3) % 2 == 1) {
+                request.header("Accept-Encoding", "gzip");
+            }
+            try {
+                int status = client.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+                (status < 400 ? succeeded : failed).increment();
+            } catch (IOException e) {
+                failed.increment();
+            }
+        }
+    }
+}
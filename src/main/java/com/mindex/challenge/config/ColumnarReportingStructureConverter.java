@@ -0,0 +1,147 @@
+package com.mindex.challenge.config;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.mindex.challenge.data.EmployeeDTO;
+import com.mindex.challenge.data.ReportingStructure;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.NonNull;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.util.*;
+
+/*
+  Columnar JSON for a ReportingStructure, negotiated with
+  Accept: application/vnd.mindex.columnar+json. The tree is flattened in pre-order into one
+  array per field plus a parent-row array (-1 for the root), and position/department are
+  dictionary-encoded, so a 10k-node subtree carries each distinct title once instead of 10k
+  times:
+
+    {"numberOfReports":2,
+     "positions":["Manager","Developer"], "departments":["Engineering"],
+     "employeeId":["a","b","c"], "firstName":[...], "lastName":[...],
+     "position":[0,1,1], "department":[0,0,0], "parent":[-1,0,0]}
+
+  Codes are -1 where the value is null. Only writing is supported.
+ */
+public class ColumnarReportingStructureConverter extends AbstractHttpMessageConverter<ReportingStructure> {
+
+    public static final MediaType MEDIA_TYPE = new MediaType("application", "vnd.mindex.columnar+json");
+
+    private final JsonFactory jsonFactory;
+
+    public ColumnarReportingStructureConverter(JsonFactory jsonFactory) {
+        super(MEDIA_TYPE);
+        this.jsonFactory = jsonFactory;
+    }
+
+    @Override
+    protected boolean supports(@NonNull Class<?> clazz) {
+        return ReportingStructure.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(@NonNull Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    // Only when the columnar type was asked for by name; a null type is the producible-types probe
+    @Override
+    public boolean canWrite(@NonNull Class<?> clazz, MediaType mediaType) {
+        return mediaType != null && super.canWrite(clazz, mediaType);
+    }
+
+    @Override
+    @NonNull
+    protected ReportingStructure readInternal(@NonNull Class<? extends ReportingStructure> clazz,
+                                              @NonNull HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Columnar reporting structures are write-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(@NonNull ReportingStructure structure, @NonNull HttpOutputMessage outputMessage)
+            throws IOException {
+        List<EmployeeDTO> rows = new ArrayList<>();
+        List<Integer> parents = new ArrayList<>();
+        flatten(structure.getEmployee(), rows, parents);
+
+        Map<String, Integer> positions = new LinkedHashMap<>();
+        Map<String, Integer> departments = new LinkedHashMap<>();
+        int[] positionCodes = new int[rows.size()];
+        int[] departmentCodes = new int[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            positionCodes[i] = encode(positions, rows.get(i).getPosition());
+            departmentCodes[i] = encode(departments, rows.get(i).getDepartment());
+        }
+
+        try (JsonGenerator generator = jsonFactory.createGenerator(StreamUtils.nonClosing(outputMessage.getBody()),
+                JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeNumberField("numberOfReports", structure.getNumberOfReports());
+            writeStrings(generator, "positions", positions.keySet());
+            writeStrings(generator, "departments", departments.keySet());
+
+            generator.writeArrayFieldStart("employeeId");
+            for (EmployeeDTO row : rows) generator.writeString(row.getEmployeeId());
+            generator.writeEndArray();
+            generator.writeArrayFieldStart("firstName");
+            for (EmployeeDTO row : rows) generator.writeString(row.getFirstName());
+            generator.writeEndArray();
+            generator.writeArrayFieldStart("lastName");
+            for (EmployeeDTO row : rows) generator.writeString(row.getLastName());
+            generator.writeEndArray();
+
+            generator.writeFieldName("position");
+            generator.writeArray(positionCodes, 0, positionCodes.length);
+            generator.writeFieldName("department");
+            generator.writeArray(departmentCodes, 0, departmentCodes.length);
+            generator.writeFieldName("parent");
+            generator.writeArray(parents.stream().mapToInt(Integer::intValue).toArray(), 0, parents.size());
+            generator.writeEndObject();
+        }
+    }
+
+    // Pre-order, children in directReports order, matching the nested JSON
+    private static void flatten(EmployeeDTO root, List<EmployeeDTO> rows, List<Integer> parents) {
+        if (root == null) {
+            return;
+        }
+        Deque<EmployeeDTO> nodes = new ArrayDeque<>();
+        Deque<Integer> parentRows = new ArrayDeque<>();
+        nodes.push(root);
+        parentRows.push(-1);
+
+        while (!nodes.isEmpty()) {
+            EmployeeDTO node = nodes.pop();
+            int row = rows.size();
+            rows.add(node);
+            parents.add(parentRows.pop());
+
+            List<EmployeeDTO> reports = node.getDirectReports();
+            if (reports == null) continue;
+            for (int i = reports.size() - 1; i >= 0; i--) {
+                nodes.push(reports.get(i));
+                parentRows.push(row);
+            }
+        }
+    }
+
+    private static int encode(Map<String, Integer> dictionary, String value) {
+        if (value == null) {
+            return -1;
+        }
+        return dictionary.computeIfAbsent(value, v -> dictionary.size());
+    }
+
+    private static void writeStrings(JsonGenerator generator, String field, Collection<String> values) throws IOException {
+        generator.writeArrayFieldStart(field);
+        for (String value : values) generator.writeString(value);
+        generator.writeEndArray();
+    }
+}
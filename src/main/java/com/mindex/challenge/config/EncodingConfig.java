@@ -0,0 +1,52 @@
+package com.mindex.challenge.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/*
+  Compact encodings a client can ask for with Accept, next to the default JSON:
+  application/x-jackson-smile and application/cbor for any response, and the columnar
+  variant for reportingStructure. The binary mappers come from Boot's builder so they share
+  the JSON mapper's modules and features. Size-based gzip is server.compression in
+  application.properties.
+ */
+@Configuration
+public class EncodingConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ObjectProvider<Jackson2ObjectMapperBuilder> mapperBuilders;
+
+    // Smile and CBOR go after the JSON converter so that a wildcard Accept (or none) still gets plain JSON.
+    // The columnar converter goes ahead of it, since the JSON converter also takes application/*+json and
+    // would write the columnar type as plain JSON; it advertises no type of its own, so it never wins a wildcard.
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2SmileHttpMessageConverter
+                || converter instanceof MappingJackson2CborHttpMessageConverter);
+        converters.add(new MappingJackson2SmileHttpMessageConverter(
+                mapperBuilders.getObject().factory(new SmileFactory()).build()));
+        converters.add(new MappingJackson2CborHttpMessageConverter(
+                mapperBuilders.getObject().factory(new CBORFactory()).build()));
+
+        int json = 0;
+        while (json < converters.size() && !(converters.get(json) instanceof MappingJackson2HttpMessageConverter)) {
+            json++;
+        }
+        converters.add(json, new ColumnarReportingStructureConverter(objectMapper.getFactory()));
+    }
+}
@@ -0,0 +1,63 @@
+package com.mindex.challenge.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.aop.ObservedAspect;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.lang.NonNull;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/*
+  Wiring for the service-level instrumentation. ObservedAspect turns the @Observed service
+  methods into timers and spans; the Jackson converter below replaces Boot's default one so
+  response serialization shows up as its own stage next to the service and Mongo timings.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public ObservedAspect observedAspect(ObservationRegistry observationRegistry) {
+        return new ObservedAspect(observationRegistry);
+    }
+
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper,
+                                                                                   ObservationRegistry observationRegistry) {
+        return new ObservedJacksonHttpMessageConverter(objectMapper, observationRegistry);
+    }
+
+    static class ObservedJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+        private final ObservationRegistry observationRegistry;
+
+        ObservedJacksonHttpMessageConverter(ObjectMapper objectMapper, ObservationRegistry observationRegistry) {
+            super(objectMapper);
+            this.observationRegistry = observationRegistry;
+        }
+
+        @Override
+        protected void writeInternal(@NonNull Object object, Type type, @NonNull HttpOutputMessage outputMessage)
+                throws IOException, HttpMessageNotWritableException {
+            Observation observation = Observation.createNotStarted("challenge.http.serialization", observationRegistry)
+                    .lowCardinalityKeyValue("type", object.getClass().getSimpleName())
+                    .start();
+            Observation.Scope scope = observation.openScope();
+            try {
+                super.writeInternal(object, type, outputMessage);
+            } catch (IOException | RuntimeException e) {
+                observation.error(e);
+                throw e;
+            } finally {
+                scope.close();
+                observation.stop();
+            }
+        }
+    }
+}
@@ -1,12 +1,20 @@
 package com.mindex.challenge.config;
 
 import com.mindex.challenge.dao.EmployeeRepository;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
 import de.bwaldvogel.mongo.MongoServer;
 import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.mongodb.MongoMetricsCommandListener;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.mongodb.config.AbstractMongoClientConfiguration;
+import org.springframework.data.mongodb.observability.ContextProviderFactory;
+import org.springframework.data.mongodb.observability.MongoObservationCommandListener;
 import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
 import org.springframework.lang.NonNull;
 
@@ -16,6 +24,12 @@ import java.net.InetSocketAddress;
 @Configuration
 public class MongoConfig extends AbstractMongoClientConfiguration {
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObservationRegistry observationRegistry;
+
     @Override
     @NonNull
     protected String getDatabaseName() {
@@ -28,7 +42,15 @@ public class MongoConfig extends AbstractMongoClientConfiguration {
         MongoServer server = new MongoServer(new MemoryBackend());
         InetSocketAddress serverAddress = server.bind();
         String mongoConnectionString = String.format("mongodb://%s:%d", serverAddress.getHostName(), serverAddress.getPort());
-        return MongoClients.create(mongoConnectionString);
+
+        // Per-command timings (mongodb.driver.commands) plus a span per command under the calling request
+        MongoClientSettings settings = MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(mongoConnectionString))
+                .addCommandListener(new MongoMetricsCommandListener(meterRegistry))
+                .addCommandListener(new MongoObservationCommandListener(observationRegistry))
+                .contextProvider(ContextProviderFactory.create(observationRegistry))
+                .build();
+        return MongoClients.create(settings);
     }
 }
 
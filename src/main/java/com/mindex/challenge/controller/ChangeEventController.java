@@ -0,0 +1,57 @@
+package com.mindex.challenge.controller;
+
+import com.mindex.challenge.data.ChangeEvent;
+import com.mindex.challenge.events.ChangeEventBus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+public class ChangeEventController {
+    private static final Logger LOG = LoggerFactory.getLogger(ChangeEventController.class);
+
+    @Autowired
+    private ChangeEventBus changeEventBus;
+
+    /*
+      Server-Sent Events stream of employee and compensation writes. Each SSE id is the event
+      sequence, so a reconnecting EventSource resumes on its own via Last-Event-ID; other clients
+      can pass ?since=<sequence>. With neither, the stream starts with the next write. If the
+      requested position has fallen out of the buffer a "reset" event is sent first.
+     */
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@RequestParam(value = "since", required = false) Long since,
+                             @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        long after = lastEventId != null ? lastEventId : since != null ? since : -1;
+        LOG.debug("Received change event subscription after sequence [{}]", after);
+
+        SseEmitter emitter = new SseEmitter(Long.MAX_VALUE);
+        ChangeEventBus.Subscription subscription = changeEventBus.subscribe(after, new ChangeEventBus.Listener() {
+            @Override
+            public void onEvent(ChangeEvent event) throws Exception {
+                emitter.send(SseEmitter.event()
+                        .id(Long.toString(event.getSequence()))
+                        .name(event.getType().name())
+                        .data(event, MediaType.APPLICATION_JSON));
+            }
+
+            @Override
+            public void onGap(long firstAvailableSequence) throws Exception {
+                emitter.send(SseEmitter.event()
+                        .name("reset")
+                        .data(firstAvailableSequence));
+            }
+        });
+
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(e -> subscription.close());
+        return emitter;
+    }
+}
@@ -6,6 +6,7 @@ import com.mindex.challenge.service.CompensationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -18,19 +19,25 @@ public class CompensationController {
 
     @PostMapping("/compensation")
     public Compensation create(@RequestBody Compensation compensation) {
-        LOG.debug("Received compensation create request [{}]", compensation);
+        LOG.atDebug().log("Received compensation create request");
         return compensationService.create(compensation);
     }
 
     @GetMapping("/compensation/{id}")
     public Compensation read(@PathVariable String id) {
-        LOG.debug("Received compensation read request for id [{}]", id);
+        LOG.atDebug().addKeyValue("employeeId", id).log("Received compensation read request");
         return compensationService.read(id);
     }
 
     @PutMapping("/compensation")
-    public Compensation update(@RequestBody Compensation compensation) {
-        LOG.debug("Received compensation update request [{}]", compensation);
-        return compensationService.update(compensation);
+    public ResponseEntity<Compensation> update(@RequestBody Compensation compensation,
+                                               @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        LOG.atDebug().log("Received compensation update request");
+        Compensation updated = compensationService.update(compensation, ETags.expectedVersion(ifMatch));
+        // A write-behind update is journaled but not yet stored, so it has no version to tag yet
+        if (updated.getVersion() == null) {
+            return ResponseEntity.accepted().body(updated);
+        }
+        return ResponseEntity.ok().eTag(ETags.version(updated.getVersion())).body(updated);
     }
 }
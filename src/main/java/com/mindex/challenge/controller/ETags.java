@@ -0,0 +1,41 @@
+package com.mindex.challenge.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/*
+  ETag formatting and If-Match parsing shared by the controllers. Documents use their version as
+  the entity tag, so an If-Match value maps straight back to the version a conditional write expects.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String version(long version) {
+        return "\"" + version + "\"";
+    }
+
+    static String reportingStructure(long subtreeVersion) {
+        return "\"rs-" + Long.toHexString(subtreeVersion) + "\"";
+    }
+
+    // Returns null when there is no precondition (header absent or "*"); a tag that is not a version is a 400
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        tag = tag.replace("\"", "");
+
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "If-Match does not name a version: " + ifMatch);
+        }
+    }
+}
@@ -1,58 +1,204 @@
 package com.mindex.challenge.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mindex.challenge.data.Employee;
 import com.mindex.challenge.data.EmployeeDTO;
+import com.mindex.challenge.data.EmployeePatch;
 import com.mindex.challenge.data.ReportingStructure;
 import com.mindex.challenge.service.EmployeeService;
+import com.mindex.challenge.service.impl.OrgJsonWriter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
 
 @RestController
 public class EmployeeController {
     private static final Logger LOG = LoggerFactory.getLogger(EmployeeController.class);
 
+    private static final int MAX_SEARCH_RESULTS = 100;
+
     @Autowired
     private EmployeeService employeeService;
 
+    // Present only with challenge.org-graph.off-heap.enabled; reads are then written straight from the org graph
+    @Autowired(required = false)
+    private OrgJsonWriter orgJsonWriter;
+
+    // Present only with challenge.response-cache.enabled; hot reads are then served from stored bytes
+    @Autowired(required = false)
+    private ResponseByteCache responseCache;
+
+    // Present only with challenge.admission.enabled; reportingStructure is then budgeted per client by subtree size
+    @Autowired(required = false)
+    private ReportingStructureAdmission admission;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping("/employee")
     public Employee create(@RequestBody Employee employee) {
-        LOG.debug("Received employee create request for [{}]", employee);
+        LOG.atDebug().log("Received employee create request");
 
         return employeeService.create(employee);
     }
+
+    // Ranked matches on name, position and department; each word of q matches as a prefix
+    @GetMapping("/employee/search")
+    public List<EmployeeDTO> search(@RequestParam("q") String query,
+                                    @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        LOG.atDebug().addKeyValue("limit", limit).log("Received employee search request");
+
+        return employeeService.search(query, Math.min(Math.max(limit, 1), MAX_SEARCH_RESULTS)).stream()
+                .map(EmployeeController::toDTO)
+                .toList();
+    }
     @GetMapping("/employee/{id}")
-public EmployeeDTO read(@PathVariable String id) {
-    Employee employee = employeeService.read(id);
-    
-    // Convert to DTO without directReports
-    EmployeeDTO dto = new EmployeeDTO();
-    dto.setEmployeeId(employee.getEmployeeId());
-    dto.setFirstName(employee.getFirstName());
-    dto.setLastName(employee.getLastName());
-    dto.setPosition(employee.getPosition());
-    dto.setDepartment(employee.getDepartment());
-    // Don't set directReports
-    
-    return dto;
+public EmployeeDTO read(@PathVariable String id, WebRequest request, HttpServletResponse response) throws IOException {
+    // Answer If-None-Match from the version stamp alone, before touching the DB or building the DTO
+    long version = employeeService.getEmployeeVersion(id);
+    if (request.checkNotModified(ETags.version(version))) {
+        return null;
+    }
+
+    boolean rawJson = negotiateRawJson(request, response);
+    if (rawJson && responseCache != null) {
+        responseCache.write(ResponseByteCache.Kind.EMPLOYEE, id, version, request.getHeader(HttpHeaders.ACCEPT_ENCODING),
+                response, () -> renderEmployee(id));
+        return null;
+    }
+
+    if (rawJson && orgJsonWriter != null) {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        orgJsonWriter.writeEmployee(id, response.getOutputStream());
+        return null;
+    }
+
+    return toDTO(employeeService.read(id));
 }
 
+    private byte[] renderEmployee(String id) throws IOException {
+        if (orgJsonWriter != null) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+            orgJsonWriter.writeEmployee(id, out);
+            return out.toByteArray();
+        }
+        return objectMapper.writeValueAsBytes(toDTO(employeeService.read(id)));
+    }
+
+    private static EmployeeDTO toDTO(Employee employee) {
+        // Convert to DTO without directReports
+        EmployeeDTO dto = new EmployeeDTO();
+        dto.setEmployeeId(employee.getEmployeeId());
+        dto.setFirstName(employee.getFirstName());
+        dto.setLastName(employee.getLastName());
+        dto.setPosition(employee.getPosition());
+        dto.setDepartment(employee.getDepartment());
+        // Don't set directReports
+
+        return dto;
+    }
+
     @PutMapping("/employee/{id}")
-    public Employee update(@PathVariable String id, @RequestBody Employee employee) {
-        LOG.debug("Received employee create request for id [{}] and employee [{}]", id, employee);
+    public ResponseEntity<Employee> update(@PathVariable String id,
+                                           @RequestBody Employee employee,
+                                           @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        LOG.atDebug().addKeyValue("employeeId", id).log("Received employee update request");
 
         employee.setEmployeeId(id);
-        return employeeService.update(employee);
+        Employee updated = employeeService.update(employee, ETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.version(updated.getVersion())).body(updated);
+    }
+
+    @PatchMapping("/employee/{id}")
+    public ResponseEntity<Employee> patch(@PathVariable String id,
+                                          @RequestBody EmployeePatch patch,
+                                          @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        LOG.atDebug().addKeyValue("employeeId", id).log("Received employee patch request");
+
+        Employee patched = employeeService.patch(id, patch, ETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.version(patched.getVersion())).body(patched);
     }
     @GetMapping("/reportingStructure/{id}")
-public ReportingStructure getReportingStructure(@PathVariable String id) {
+public ReportingStructure getReportingStructure(@PathVariable String id, WebRequest request,
+                                                HttpServletRequest servletRequest,
+                                                HttpServletResponse response) throws IOException {
+    // Shed before the subtree version hash, which is itself a traversal when its memo is cold
+    if (admission != null) {
+        admission.admit(id, servletRequest, response);
+    }
+
+    // The subtree version changes whenever anyone in the subtree, or the shape of it, changes
+    long subtreeVersion = employeeService.getReportingStructureVersion(id);
+    if (request.checkNotModified(ETags.reportingStructure(subtreeVersion))) {
+        return null;
+    }
+
+    boolean rawJson = negotiateRawJson(request, response);
+    if (rawJson && responseCache != null) {
+        responseCache.write(ResponseByteCache.Kind.REPORTING_STRUCTURE, id, subtreeVersion,
+                request.getHeader(HttpHeaders.ACCEPT_ENCODING), response, () -> renderReportingStructure(id));
+        return null;
+    }
+
+    if (rawJson && orgJsonWriter != null) {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        orgJsonWriter.writeReportingStructure(id, response.getOutputStream());
+        return null;
+    }
+
     return employeeService.getReportingStructure(id);
 }
 
+    /*
+      The byte cache and the flyweight writer only produce JSON. They are used unless the client
+      prefers some other concrete type (Smile, CBOR, the columnar variant), in which case the
+      object path lets the message converters negotiate.
+     */
+    static boolean negotiateRawJson(WebRequest request, HttpServletResponse response) {
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+
+        double jsonQuality = 0;
+        double otherQuality = 0;
+        for (MediaType type : MediaType.parseMediaTypes(accept)) {
+            if (type.includes(MediaType.APPLICATION_JSON)) {
+                jsonQuality = Math.max(jsonQuality, type.getQualityValue());
+            } else if (type.isConcrete()) {
+                otherQuality = Math.max(otherQuality, type.getQualityValue());
+            }
+        }
+        return jsonQuality > 0 && jsonQuality > otherQuality;
+    }
+
+    private byte[] renderReportingStructure(String id) throws IOException {
+        if (orgJsonWriter != null) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+            orgJsonWriter.writeReportingStructure(id, out);
+            return out.toByteArray();
+        }
+        return objectMapper.writeValueAsBytes(employeeService.getReportingStructure(id));
+    }
+
 }
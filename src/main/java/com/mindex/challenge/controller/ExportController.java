@@ -0,0 +1,67 @@
+package com.mindex.challenge.controller;
+
+import com.mindex.challenge.service.ExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.Locale;
+
+@RestController
+public class ExportController {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ExportController.class);
+
+    static final String NDJSON = "application/x-ndjson";
+    static final String CSV = "text/csv";
+
+    @Autowired
+    private ExportService exportService;
+
+    /*
+      Every employee with manager, depth, subtree size and compensation, streamed as NDJSON
+      (default) or CSV. The format comes from ?format=ndjson|csv, or from Accept: text/csv. The
+      response is chunked and written as the rows are read, so nothing is held for the whole export.
+     */
+    @GetMapping("/export/employees")
+    public void exportEmployees(@RequestParam(value = "format", required = false) String format,
+                                @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                HttpServletResponse response) throws IOException {
+        ExportService.Format chosen = chooseFormat(format, accept);
+        LOG.atDebug().addKeyValue("format", chosen).log("Received employee export request");
+
+        response.setCharacterEncoding("UTF-8");
+        response.setContentType(chosen == ExportService.Format.CSV ? CSV : NDJSON);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"employees."
+                + (chosen == ExportService.Format.CSV ? "csv" : "ndjson") + "\"");
+        exportService.exportEmployees(chosen, response.getOutputStream());
+    }
+
+    static ExportService.Format chooseFormat(String format, String accept) {
+        if (format != null && !format.isBlank()) {
+            try {
+                return ExportService.Format.valueOf(format.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported export format: " + format);
+            }
+        }
+        if (accept != null) {
+            for (MediaType type : MediaType.parseMediaTypes(accept)) {
+                if (type.isCompatibleWith(MediaType.parseMediaType(CSV)) && type.isConcrete()) {
+                    return ExportService.Format.CSV;
+                }
+            }
+        }
+        return ExportService.Format.NDJSON;
+    }
+}
@@ -0,0 +1,157 @@
+package com.mindex.challenge.controller;
+
+import com.mindex.challenge.exception.TooManyRequestsException;
+import com.mindex.challenge.service.impl.OrgGraph;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+  Cost-aware admission for reportingStructure, enabled with challenge.admission.enabled=true.
+  A request costs the size of the subtree it asks for (from the org graph, O(1) once computed),
+  so the CEO's structure weighs as much as the whole company and a leaf's weighs 1. Each client
+  gets a token bucket of challenge.admission.burst employees refilled at cost-per-second; a
+  request the bucket cannot cover is rejected with 429 and Retry-After before any traversal,
+  version hash or serialization runs. Employee reads never pass through here.
+
+  Clients are told apart by remote address. challenge.admission.client-header is only honoured
+  from challenge.admission.trusted-callers (loopback by default, which covers the startup
+  warm-up and a local proxy), since anyone else could send a fresh value with every request and
+  get a fresh bucket each time. Buckets are a single GCRA arrival time each, as in
+  RateLimitingTurboFilter; a cost larger than the burst is charged as the burst so that every
+  request can be admitted from a full bucket.
+
+  At most challenge.admission.max-clients buckets are kept. Once the map is full, idle (fully
+  refilled) buckets are dropped, at most once a second; if that frees nothing, new clients share
+  one overflow bucket until it does, rather than each getting a budget of its own.
+ */
+@Component
+@ConditionalOnProperty(name = "challenge.admission.enabled", havingValue = "true")
+public class ReportingStructureAdmission {
+
+    @Value("${challenge.admission.cost-per-second:50000}")
+    private double costPerSecond;
+
+    @Value("${challenge.admission.burst:100000}")
+    private int burst;
+
+    @Value("${challenge.admission.client-header:X-Client-Id}")
+    private String clientHeader;
+
+    @Value("${challenge.admission.max-clients:10000}")
+    private int maxClients;
+
+    @Value("${challenge.admission.trusted-callers:127.0.0.1,0:0:0:0:0:0:0:1,::1}")
+    private Set<String> trustedCallers;
+
+    @Autowired
+    private OrgGraph orgGraph;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private static final String OVERFLOW_CLIENT = "";
+    private static final long EVICTION_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastEviction = new AtomicLong(Long.MIN_VALUE);
+
+    private double nanosPerUnit;
+    private Counter admitted;
+    private Counter rejected;
+    private DistributionSummary cost;
+
+    @PostConstruct
+    public void init() {
+        if (costPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("challenge.admission.cost-per-second must be positive and burst at least 1");
+        }
+        nanosPerUnit = TimeUnit.SECONDS.toNanos(1) / costPerSecond;
+
+        admitted = Counter.builder("challenge.admission.requests").tag("result", "admitted").register(meterRegistry);
+        rejected = Counter.builder("challenge.admission.requests").tag("result", "rejected").register(meterRegistry);
+        cost = DistributionSummary.builder("challenge.admission.cost").baseUnit("employees").register(meterRegistry);
+    }
+
+    // Charges the request's cost to its client, or throws TooManyRequestsException with Retry-After set
+    public void admit(String employeeId, HttpServletRequest request, HttpServletResponse response) {
+        int units = Math.max(1, Math.min(burst, orgGraph.snapshot().subtreeSize(employeeId)));
+        cost.record(units);
+
+        long waitNanos = tryAcquire(clientKey(request), units, System.nanoTime());
+        if (waitNanos == 0) {
+            admitted.increment();
+            return;
+        }
+
+        rejected.increment();
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1)));
+        throw new TooManyRequestsException("reportingStructure budget exhausted for this client; cost " + units);
+    }
+
+    // 0 if admitted, otherwise how long until the bucket could cover the cost
+    long tryAcquire(String client, int units, long now) {
+        AtomicLong arrival = buckets.get(client);
+        if (arrival == null) {
+            if (buckets.size() >= maxClients) {
+                evictIdle(now);
+            }
+            // Racing inserts can overshoot maxClients by a few, never by more than the number of request threads
+            String key = buckets.size() < maxClients ? client : OVERFLOW_CLIENT;
+            arrival = buckets.computeIfAbsent(key, c -> new AtomicLong(Long.MIN_VALUE));
+        }
+
+        long increment = (long) (units * nanosPerUnit);
+        long tolerance = (long) (burst * nanosPerUnit);
+        while (true) {
+            long current = arrival.get();
+            long next = Math.max(current, now) + increment;
+            if (next - now > tolerance) {
+                return next - now - tolerance;
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    int bucketCount() {
+        return buckets.size();
+    }
+
+    // A bucket whose arrival time has passed is full again, which is the same as having none
+    private void evictIdle(long now) {
+        long last = lastEviction.get();
+        if (last != Long.MIN_VALUE && now - last < EVICTION_INTERVAL_NANOS) {
+            return;
+        }
+        if (lastEviction.compareAndSet(last, now)) {
+            buckets.values().removeIf(arrival -> arrival.get() - now <= 0);
+        }
+    }
+
+    String clientKey(HttpServletRequest request) {
+        String address = request.getRemoteAddr();
+        if (trustedCallers.contains(address)) {
+            String client = request.getHeader(clientHeader);
+            if (client != null && !client.isBlank()) {
+                return client;
+            }
+        }
+        return address;
+    }
+}
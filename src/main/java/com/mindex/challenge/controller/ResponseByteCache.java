@@ -0,0 +1,269 @@
+package com.mindex.challenge.controller;
+
+import com.mindex.challenge.service.impl.SingleFlight;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/*
+  Final UTF-8 JSON (and, on demand, its gzip) for employee and reportingStructure reads, keyed
+  by id and stamped with the same version the ETag is built from. A write changes the stamp
+  (the employee's version, or the subtree version for everyone above it), so a stale entry is
+  simply never served again and gets replaced by the next read. A hit writes the stored bytes
+  straight to the response: no service call, DTO or Jackson pass.
+
+  Size is bounded by challenge.response-cache.max-bytes; past it, entries are evicted by
+  sampled LRU (the least recently read of a few entries taken in hash order) rather than by
+  keeping a global access-ordered list that every hit would have to lock.
+
+  Concurrent misses for the same id and stamp render once and share the bytes. With
+  challenge.response-cache.stale-while-revalidate-ms > 0, a request that finds an outdated entry
+  is answered from it (with that entry's ETag, so the client can tell) while the new version is
+  rendered in the background, for at most that long after the entry was first found outdated.
+ */
+@Component
+@ConditionalOnProperty(name = "challenge.response-cache.enabled", havingValue = "true")
+public class ResponseByteCache {
+
+    public enum Kind { EMPLOYEE, REPORTING_STRUCTURE }
+
+    @FunctionalInterface
+    public interface Renderer {
+        byte[] render() throws IOException;
+    }
+
+    private static final Logger LOG = LoggerFactory.getLogger(ResponseByteCache.class);
+
+    private static final int EVICTION_SAMPLES = 8;
+
+    @Value("${challenge.response-cache.max-bytes:67108864}")
+    private long maxBytes;
+
+    @Value("${challenge.response-cache.gzip:true}")
+    private boolean gzip;
+
+    @Value("${challenge.response-cache.stale-while-revalidate-ms:0}")
+    private long staleWhileRevalidateMs;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final AtomicLong clock = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final SingleFlight<String, Entry> renders = new SingleFlight<>();
+    private final ExecutorService refresher = new ThreadPoolExecutor(2, 2, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(256), runnable -> {
+        Thread thread = new Thread(runnable, "response-cache-refresh");
+        thread.setDaemon(true);
+        return thread;
+    }, new ThreadPoolExecutor.DiscardPolicy());
+
+    private static final class Entry {
+        // Set once; only the thread that sets it counts the compressed bytes
+        static final AtomicReferenceFieldUpdater<Entry, byte[]> GZIPPED =
+                AtomicReferenceFieldUpdater.newUpdater(Entry.class, byte[].class, "gzipped");
+
+        final long stamp;
+        final byte[] json;
+        volatile byte[] gzipped;
+        volatile long lastRead;
+        // System.nanoTime() when a read first found this entry outdated; 0 while it is current
+        volatile long staleSince;
+
+        Entry(long stamp, byte[] json, long lastRead) {
+            this.stamp = stamp;
+            this.json = json;
+            this.lastRead = lastRead;
+        }
+
+        long weight() {
+            byte[] compressed = gzipped;
+            return json.length + (compressed == null ? 0 : compressed.length);
+        }
+    }
+
+    @PostConstruct
+    public void registerMetrics() {
+        FunctionCounter.builder("challenge.cache.requests", hits, LongAdder::sum)
+                .tag("cache", "responseBytes").tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("challenge.cache.requests", misses, LongAdder::sum)
+                .tag("cache", "responseBytes").tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("challenge.cache.requests", staleHits, LongAdder::sum)
+                .tag("cache", "responseBytes").tag("result", "stale").register(meterRegistry);
+        renders.registerMetrics(meterRegistry, "responseBytes");
+        Gauge.builder("challenge.response-cache.size", totalBytes, AtomicLong::get)
+                .baseUnit("bytes").register(meterRegistry);
+    }
+
+    public void write(Kind kind, String id, long stamp, String acceptEncoding,
+                      HttpServletResponse response, Renderer renderer) throws IOException {
+        String key = kind.ordinal() + ":" + id;
+        Entry entry = entries.get(key);
+        if (entry != null && entry.stamp == stamp) {
+            hits.increment();
+            entry.lastRead = clock.incrementAndGet();
+        } else if (entry != null && serveStale(key, stamp, entry, renderer)) {
+            staleHits.increment();
+            entry.lastRead = clock.incrementAndGet();
+            response.setHeader(HttpHeaders.ETAG, kind == Kind.EMPLOYEE
+                    ? ETags.version(entry.stamp) : ETags.reportingStructure(entry.stamp));
+        } else {
+            misses.increment();
+            entry = render(key, stamp, renderer);
+        }
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        if (gzip) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (gzip && acceptsGzip(acceptEncoding)) {
+            byte[] compressed = gzipped(key, entry);
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            response.setContentLength(compressed.length);
+            response.getOutputStream().write(compressed);
+        } else {
+            response.setContentLength(entry.json.length);
+            response.getOutputStream().write(entry.json);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private Entry render(String key, long stamp, Renderer renderer) throws IOException {
+        return renders.execute(key + "@" + stamp, () -> {
+            Entry rendered = new Entry(stamp, renderer.render(), clock.incrementAndGet());
+            store(key, rendered);
+            return rendered;
+        });
+    }
+
+    // Kicks off (at most) one background render of the new stamp; false once the entry is too old to serve
+    private boolean serveStale(String key, long stamp, Entry entry, Renderer renderer) {
+        if (staleWhileRevalidateMs <= 0) {
+            return false;
+        }
+        long now = System.nanoTime();
+        if (entry.staleSince == 0) {
+            entry.staleSince = now;
+        } else if (now - entry.staleSince > TimeUnit.MILLISECONDS.toNanos(staleWhileRevalidateMs)) {
+            return false;
+        }
+
+        if (!renders.isRunning(key + "@" + stamp)) {
+            refresher.execute(() -> {
+                Entry current = entries.get(key);
+                if (current != null && current.stamp == stamp) {
+                    return;
+                }
+                try {
+                    render(key, stamp, renderer);
+                } catch (Exception e) {
+                    LOG.debug("Background refresh of {} failed: {}", key, e.toString());
+                }
+            });
+        }
+        return true;
+    }
+
+    // Compressed once per entry, the first time a gzip-capable client asks for it
+    private byte[] gzipped(String key, Entry entry) throws IOException {
+        byte[] compressed = entry.gzipped;
+        if (compressed == null) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(entry.json.length / 4 + 64);
+            try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+                out.write(entry.json);
+            }
+            compressed = buffer.toByteArray();
+            // Another request may have compressed the same entry meanwhile; keep its bytes and don't count ours
+            if (!Entry.GZIPPED.compareAndSet(entry, null, compressed)) {
+                return entry.gzipped;
+            }
+            if (entries.get(key) == entry) {
+                totalBytes.addAndGet(compressed.length);
+                evictOverBudget();
+            }
+        }
+        return compressed;
+    }
+
+    private void store(String key, Entry entry) {
+        if (entry.json.length > maxBytes) {
+            return;
+        }
+        Entry previous = entries.put(key, entry);
+        totalBytes.addAndGet(entry.weight() - (previous == null ? 0 : previous.weight()));
+        evictOverBudget();
+    }
+
+    private void evictOverBudget() {
+        while (totalBytes.get() > maxBytes && !entries.isEmpty()) {
+            String oldestKey = null;
+            Entry oldest = null;
+            Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+            for (int i = 0; i < EVICTION_SAMPLES && it.hasNext(); i++) {
+                Map.Entry<String, Entry> candidate = it.next();
+                if (oldest == null || candidate.getValue().lastRead < oldest.lastRead) {
+                    oldestKey = candidate.getKey();
+                    oldest = candidate.getValue();
+                }
+            }
+            if (oldestKey != null && entries.remove(oldestKey, oldest)) {
+                totalBytes.addAndGet(-oldest.weight());
+            }
+        }
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (!parts[0].trim().equalsIgnoreCase("gzip")) continue;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=") && isZero(param.substring(2))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean isZero(String qValue) {
+        try {
+            return Double.parseDouble(qValue) == 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -4,7 +4,14 @@ package com.mindex.challenge.dao;
 import com.mindex.challenge.data.Compensation;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
-public interface CompensationRepository extends MongoRepository<Compensation, String> {
+import java.util.Collection;
+import java.util.List;
+
+public interface CompensationRepository extends MongoRepository<Compensation, String>, CompensationRepositoryCustom {
     Compensation findByEmployee_EmployeeId(String employeeId);
+
+    boolean existsByEmployee_EmployeeId(String employeeId);
+
+    List<Compensation> findByEmployee_EmployeeIdIn(Collection<String> employeeIds);
 }
 
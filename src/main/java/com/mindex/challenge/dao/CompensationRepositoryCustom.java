@@ -0,0 +1,34 @@
+package com.mindex.challenge.dao;
+
+import com.mindex.challenge.data.Compensation;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface CompensationRepositoryCustom {
+    /*
+      Sets salary and effectiveDate on the compensation of the given employee and bumps its version,
+      in one round trip. When expectedVersion is non-null the write only applies if the stored version
+      still matches. Returns the updated document, or null if nothing matched.
+     */
+    Compensation updateIfVersionMatches(Compensation compensation, Long expectedVersion);
+
+    /*
+      Unconditionally applies salary/effectiveDate for each compensation as one unordered bulk write.
+      Returns how many documents were matched.
+     */
+    int updateAll(Collection<Compensation> compensations);
+
+    /*
+      Stores a compensation written on another node exactly as given, id and version included,
+      unless the stored copy is already at that version or newer. A compensation without a version
+      is never applied. Returns false if the write was skipped.
+     */
+    boolean replaceIfNewer(Compensation compensation);
+
+    // employeeId of every stored compensation, without loading the documents
+    List<String> findCompensatedEmployeeIds();
+
+    // Bulk insert that keeps the given ids and versions instead of initialising them
+    void insertVerbatim(Collection<Compensation> compensations);
+}
@@ -0,0 +1,96 @@
+package com.mindex.challenge.dao;
+
+import com.mindex.challenge.data.Compensation;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class CompensationRepositoryImpl implements CompensationRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public Compensation updateIfVersionMatches(Compensation compensation, Long expectedVersion) {
+        Query query = byEmployeeId(compensation);
+        if (expectedVersion != null) {
+            query.addCriteria(Criteria.where("version").is(expectedVersion));
+        }
+
+        return mongoTemplate.findAndModify(query, termsUpdate(compensation), FindAndModifyOptions.options().returnNew(true), Compensation.class);
+    }
+
+    @Override
+    public int updateAll(Collection<Compensation> compensations) {
+        if (compensations.isEmpty()) {
+            return 0;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Compensation.class);
+        for (Compensation compensation : compensations) {
+            bulk.updateOne(byEmployeeId(compensation), termsUpdate(compensation));
+        }
+        return bulk.execute().getMatchedCount();
+    }
+
+    @Override
+    public boolean replaceIfNewer(Compensation compensation) {
+        // Without a version there is no way to order it against the stored copy
+        if (compensation.getVersion() == null) {
+            return false;
+        }
+        Query query = byEmployeeId(compensation);
+        query.addCriteria(new Criteria().orOperator(
+                Criteria.where("version").lt(compensation.getVersion()),
+                Criteria.where("version").is(null)));
+        if (mongoTemplate.findAndReplace(query, compensation) != null) {
+            return true;
+        }
+        if (mongoTemplate.exists(byEmployeeId(compensation), Compensation.class)) {
+            return false;
+        }
+        insertVerbatim(List.of(compensation));
+        return true;
+    }
+
+    @Override
+    public List<String> findCompensatedEmployeeIds() {
+        return mongoTemplate.findDistinct(new Query(), "employee.employeeId", Compensation.class, String.class);
+    }
+
+    // Goes through the driver directly: MongoTemplate.insert would reset @Version to 0
+    @Override
+    public void insertVerbatim(Collection<Compensation> compensations) {
+        if (compensations.isEmpty()) {
+            return;
+        }
+        List<Document> documents = new ArrayList<>(compensations.size());
+        for (Compensation compensation : compensations) {
+            Document document = new Document();
+            mongoTemplate.getConverter().write(compensation, document);
+            documents.add(document);
+        }
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(Compensation.class)).insertMany(documents);
+    }
+
+    private static Query byEmployeeId(Compensation compensation) {
+        return Query.query(Criteria.where("employee.employeeId").is(compensation.getEmployee().getEmployeeId()));
+    }
+
+    // The embedded employee is left as stored; only the compensation terms change
+    private static Update termsUpdate(Compensation compensation) {
+        return new Update()
+                .set("salary", compensation.getSalary())
+                .set("effectiveDate", compensation.getEffectiveDate())
+                .inc("version", 1);
+    }
+}
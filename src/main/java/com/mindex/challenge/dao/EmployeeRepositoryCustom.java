@@ -0,0 +1,31 @@
+package com.mindex.challenge.dao;
+
+import com.mindex.challenge.data.Employee;
+import com.mindex.challenge.data.EmployeePatch;
+
+import java.util.Collection;
+
+public interface EmployeeRepositoryCustom {
+    /*
+      Replaces every field of the employee with the given employeeId and bumps its version, in one
+      round trip. When expectedVersion is non-null the write only applies if the stored version still
+      matches. Returns the updated document, or null if nothing matched.
+     */
+    Employee updateIfVersionMatches(Employee employee, Long expectedVersion);
+
+    /*
+      Writes only the fields present in the patch ($set), adds/removes reporting lines with
+      $addToSet/$pull, and bumps the version. Same matching and return contract as
+      updateIfVersionMatches.
+     */
+    Employee patchIfVersionMatches(String employeeId, EmployeePatch patch, Long expectedVersion);
+
+    /*
+      Stores an employee written on another node exactly as given, version included, unless the
+      stored copy already has the same or a newer version. Returns false if the write was skipped.
+     */
+    boolean replaceIfNewer(Employee employee);
+
+    // Bulk insert that keeps the given versions instead of initialising them
+    void insertVerbatim(Collection<Employee> employees);
+}
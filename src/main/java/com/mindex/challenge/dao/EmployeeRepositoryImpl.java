@@ -0,0 +1,151 @@
+package com.mindex.challenge.dao;
+
+import com.mindex.challenge.data.Employee;
+import com.mindex.challenge.data.EmployeePatch;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+public class EmployeeRepositoryImpl implements EmployeeRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public Employee updateIfVersionMatches(Employee employee, Long expectedVersion) {
+        Update update = new Update()
+                .set("firstName", employee.getFirstName())
+                .set("lastName", employee.getLastName())
+                .set("position", employee.getPosition())
+                .set("department", employee.getDepartment())
+                .set("directReports", employee.getDirectReports())
+                .inc("version", 1);
+
+        return findAndModify(employee.getEmployeeId(), expectedVersion, update);
+    }
+
+    @Override
+    public Employee patchIfVersionMatches(String employeeId, EmployeePatch patch, Long expectedVersion) {
+        Update update = new Update().inc("version", 1);
+        setIfPresent(update, "firstName", patch.getFirstName());
+        setIfPresent(update, "lastName", patch.getLastName());
+        setIfPresent(update, "position", patch.getPosition());
+        setIfPresent(update, "department", patch.getDepartment());
+
+        boolean adding = patch.getAddDirectReports() != null && !patch.getAddDirectReports().isEmpty();
+        boolean removing = patch.getRemoveDirectReports() != null && !patch.getRemoveDirectReports().isEmpty();
+
+        if (removing && adding) {
+            return replaceReports(employeeId, patch, expectedVersion, update);
+        }
+        if (removing) {
+            update.pull("directReports",
+                    new Document("employeeId", new Document("$in", patch.getRemoveDirectReports())));
+        } else if (adding) {
+            update.addToSet("directReports").each(references(patch.getAddDirectReports()));
+        }
+        return findAndModify(employeeId, expectedVersion, update);
+    }
+
+    /*
+      Mongo rejects $pull and $addToSet on the same path in one update, so a patch that does both
+      computes the new list from the stored one and sets it in a single write conditioned on the
+      version it was read at. Without an expected version a concurrent write just means reading
+      again; with one it is a conflict.
+     */
+    private Employee replaceReports(String employeeId, EmployeePatch patch, Long expectedVersion, Update update) {
+        Set<String> removed = new HashSet<>(patch.getRemoveDirectReports());
+        while (true) {
+            Employee current = mongoTemplate.findOne(Query.query(Criteria.where("employeeId").is(employeeId)), Employee.class);
+            if (current == null || (expectedVersion != null && !expectedVersion.equals(current.getVersion()))) {
+                return null;
+            }
+
+            // Same result as the $pull followed by $addToSet: survivors keep their order, additions go last
+            Set<String> reports = new LinkedHashSet<>();
+            if (current.getDirectReports() != null) {
+                for (Employee report : current.getDirectReports()) {
+                    if (!removed.contains(report.getEmployeeId())) {
+                        reports.add(report.getEmployeeId());
+                    }
+                }
+            }
+            reports.addAll(patch.getAddDirectReports());
+            update.set("directReports", List.of(references(new ArrayList<>(reports))));
+
+            Query atReadVersion = Query.query(Criteria.where("employeeId").is(employeeId)
+                    .and("version").is(current.getVersion()));
+            Employee patched = mongoTemplate.findAndModify(atReadVersion, update,
+                    FindAndModifyOptions.options().returnNew(true), Employee.class);
+            if (patched != null || expectedVersion != null) {
+                return patched;
+            }
+        }
+    }
+
+    @Override
+    public boolean replaceIfNewer(Employee employee) {
+        Query query = Query.query(Criteria.where("employeeId").is(employee.getEmployeeId()));
+        if (employee.getVersion() != null) {
+            query.addCriteria(new Criteria().orOperator(
+                    Criteria.where("version").lt(employee.getVersion()),
+                    Criteria.where("version").is(null)));
+        }
+        if (mongoTemplate.findAndReplace(query, employee) != null) {
+            return true;
+        }
+        if (mongoTemplate.exists(Query.query(Criteria.where("employeeId").is(employee.getEmployeeId())), Employee.class)) {
+            return false;
+        }
+        insertVerbatim(List.of(employee));
+        return true;
+    }
+
+    // Goes through the driver directly: MongoTemplate.insert would reset @Version to 0
+    @Override
+    public void insertVerbatim(Collection<Employee> employees) {
+        if (employees.isEmpty()) {
+            return;
+        }
+        List<Document> documents = new ArrayList<>(employees.size());
+        for (Employee employee : employees) {
+            Document document = new Document();
+            mongoTemplate.getConverter().write(employee, document);
+            documents.add(document);
+        }
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(Employee.class)).insertMany(documents);
+    }
+
+    private Employee findAndModify(String employeeId, Long expectedVersion, Update update) {
+        Query query = Query.query(Criteria.where("employeeId").is(employeeId));
+        if (expectedVersion != null) {
+            query.addCriteria(Criteria.where("version").is(expectedVersion));
+        }
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Employee.class);
+    }
+
+    private static void setIfPresent(Update update, String field, Object value) {
+        if (value != null) {
+            update.set(field, value);
+        }
+    }
+
+    // Reporting lines are stored as {employeeId: ...} stubs, same shape as the bootstrap data
+    private static Object[] references(List<String> employeeIds) {
+        return employeeIds.stream()
+                .distinct()
+                .map(id -> new Document("employeeId", id))
+                .toArray();
+    }
+}
@@ -0,0 +1,104 @@
+package com.mindex.challenge.data;
+/*
+  One committed write, as published on the ChangeEventBus and streamed from /events.
+  sequence is assigned by the bus and is strictly increasing, so a consumer can resume after the
+  last sequence it saw. The written document is carried along in employee or compensation so
+  consumers can apply the change without re-reading it.
+ */
+import java.time.Instant;
+
+public class ChangeEvent {
+
+    public enum Type {
+        EMPLOYEE_CREATED,
+        EMPLOYEE_UPDATED,
+        EMPLOYEE_PATCHED,
+        COMPENSATION_CREATED,
+        COMPENSATION_UPDATED
+    }
+
+    private long sequence;
+    private Type type;
+    private String employeeId;
+    private Long version;
+    private Instant timestamp;
+    private Employee employee;
+    private Compensation compensation;
+
+    public ChangeEvent() {
+    }
+
+    public static ChangeEvent of(Type type, Employee employee) {
+        ChangeEvent event = new ChangeEvent();
+        event.type = type;
+        event.employeeId = employee.getEmployeeId();
+        event.version = employee.getVersion();
+        event.employee = employee;
+        return event;
+    }
+
+    public static ChangeEvent of(Type type, Compensation compensation) {
+        ChangeEvent event = new ChangeEvent();
+        event.type = type;
+        event.employeeId = compensation.getEmployee().getEmployeeId();
+        event.version = compensation.getVersion();
+        event.compensation = compensation;
+        return event;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public String getEmployeeId() {
+        return employeeId;
+    }
+
+    public void setEmployeeId(String employeeId) {
+        this.employeeId = employeeId;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Instant timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public Employee getEmployee() {
+        return employee;
+    }
+
+    public void setEmployee(Employee employee) {
+        this.employee = employee;
+    }
+
+    public Compensation getCompensation() {
+        return compensation;
+    }
+
+    public void setCompensation(Compensation compensation) {
+        this.compensation = compensation;
+    }
+}
@@ -1,6 +1,7 @@
 package com.mindex.challenge.data;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
@@ -20,6 +21,9 @@ public class Compensation {
     private double salary;
     private LocalDate effectiveDate;
 
+    @Version
+    private Long version;
+
     public Employee getEmployee() {
         return employee;
     }
@@ -43,4 +47,12 @@ public class Compensation {
     public void setEffectiveDate(LocalDate effectiveDate) {
         this.effectiveDate = effectiveDate;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -1,5 +1,7 @@
 package com.mindex.challenge.data;
 
+import org.springframework.data.annotation.Version;
+
 import java.util.List;
 
 public class Employee {
@@ -9,6 +11,8 @@ public class Employee {
     private String position;
     private String department;
     private List<Employee> directReports;
+    @Version
+    private Long version;
 
     public Employee() {
     }
@@ -60,4 +64,12 @@ public class Employee {
     public void setDirectReports(List<Employee> directReports) {
         this.directReports = directReports;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,73 @@
+package com.mindex.challenge.data;
+/*
+  Body of PATCH /employee/{employeeId}. Only the fields that are present are written; a null field
+  means "leave as is". Reporting lines are changed by id through addDirectReports and
+  removeDirectReports rather than by resending the whole directReports list.
+ */
+import java.util.List;
+
+public class EmployeePatch {
+    private String firstName;
+    private String lastName;
+    private String position;
+    private String department;
+    private List<String> addDirectReports;
+    private List<String> removeDirectReports;
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    public String getPosition() {
+        return position;
+    }
+
+    public void setPosition(String position) {
+        this.position = position;
+    }
+
+    public String getDepartment() {
+        return department;
+    }
+
+    public void setDepartment(String department) {
+        this.department = department;
+    }
+
+    public List<String> getAddDirectReports() {
+        return addDirectReports;
+    }
+
+    public void setAddDirectReports(List<String> addDirectReports) {
+        this.addDirectReports = addDirectReports;
+    }
+
+    public List<String> getRemoveDirectReports() {
+        return removeDirectReports;
+    }
+
+    public void setRemoveDirectReports(List<String> removeDirectReports) {
+        this.removeDirectReports = removeDirectReports;
+    }
+
+    public boolean changesHierarchy() {
+        return (addDirectReports != null && !addDirectReports.isEmpty())
+                || (removeDirectReports != null && !removeDirectReports.isEmpty());
+    }
+
+    public boolean isEmpty() {
+        return firstName == null && lastName == null && position == null && department == null && !changesHierarchy();
+    }
+}
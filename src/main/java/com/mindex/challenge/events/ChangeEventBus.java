@@ -0,0 +1,272 @@
+package com.mindex.challenge.events;
+
+import com.mindex.challenge.data.ChangeEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+  In-process, ordered stream of committed writes.
+
+  publish() stamps the event with the next sequence number, stores it in a fixed-size ring buffer
+  and hands it to every subscriber's own bounded queue, all under one short lock, so each queue
+  receives events in sequence order. Each subscriber is drained by at most one delivery thread at
+  a time, so a slow consumer only holds up itself, never the writer or the other subscribers.
+
+  A listener can subscribe "after" a sequence it has already seen. Events still in the ring are
+  replayed first and live events follow without gaps or duplicates. A subscriber whose queue
+  (challenge.events.subscriber-queue-size) overflows catches up from the ring the same way. If
+  its position has already been overwritten, the listener is told via onGap and must re-read
+  whatever state it derives from the stream.
+ */
+@Component
+public class ChangeEventBus {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeEventBus.class);
+
+    public interface Listener {
+        void onEvent(ChangeEvent event) throws Exception;
+
+        default void onGap(long firstAvailableSequence) throws Exception {
+        }
+    }
+
+    public interface Subscription extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final int DEFAULT_SUBSCRIBER_QUEUE_SIZE = 1024;
+
+    private final ChangeEvent[] ring;
+    private final int subscriberQueueSize;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ExecutorService delivery = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "change-event-delivery");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Sequence of the most recently published event; 0 means nothing published yet
+    private long lastSequence;
+
+    public ChangeEventBus(int capacity) {
+        this(capacity, DEFAULT_SUBSCRIBER_QUEUE_SIZE);
+    }
+
+    @Autowired
+    public ChangeEventBus(@Value("${challenge.events.buffer-size:4096}") int capacity,
+                          @Value("${challenge.events.subscriber-queue-size:1024}") int subscriberQueueSize) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Change event buffer size must be positive: " + capacity);
+        }
+        if (subscriberQueueSize <= 0) {
+            throw new IllegalArgumentException("Subscriber queue size must be positive: " + subscriberQueueSize);
+        }
+        this.ring = new ChangeEvent[capacity];
+        this.subscriberQueueSize = subscriberQueueSize;
+    }
+
+    public ChangeEvent publish(ChangeEvent event) {
+        synchronized (ring) {
+            event.setSequence(++lastSequence);
+            if (event.getTimestamp() == null) {
+                event.setTimestamp(Instant.now());
+            }
+            ring[slot(event.getSequence())] = event;
+
+            // Enqueued under the lock, so no subscriber can see sequences out of order
+            for (Subscriber subscriber : subscribers) {
+                subscriber.enqueue(event);
+            }
+        }
+        return event;
+    }
+
+    public long lastSequence() {
+        synchronized (ring) {
+            return lastSequence;
+        }
+    }
+
+    // Oldest sequence still held in the ring
+    public long firstAvailableSequence() {
+        synchronized (ring) {
+            return Math.max(1, lastSequence - ring.length + 1);
+        }
+    }
+
+    /*
+      Events with sequence > afterSequence that are still retained, oldest first. Returns null when
+      some of the requested range has already been overwritten.
+     */
+    public List<ChangeEvent> eventsAfter(long afterSequence) {
+        synchronized (ring) {
+            long first = Math.max(1, lastSequence - ring.length + 1);
+            if (afterSequence + 1 < first) {
+                return null;
+            }
+
+            List<ChangeEvent> events = new ArrayList<>((int) Math.max(0, lastSequence - afterSequence));
+            for (long sequence = afterSequence + 1; sequence <= lastSequence; sequence++) {
+                events.add(ring[slot(sequence)]);
+            }
+            return events;
+        }
+    }
+
+    // afterSequence < 0 means "live only", i.e. start after whatever has been published so far
+    public Subscription subscribe(long afterSequence, Listener listener) {
+        Subscriber subscriber = new Subscriber(listener);
+        synchronized (ring) {
+            // Starts out catching up from the ring; live events queue behind the replay
+            subscriber.lastDelivered = afterSequence < 0 ? lastSequence : afterSequence;
+            subscriber.resync = afterSequence >= 0;
+            subscribers.add(subscriber);
+        }
+        subscriber.schedule();
+
+        return subscriber::close;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        delivery.shutdown();
+    }
+
+    private int slot(long sequence) {
+        return (int) ((sequence - 1) % ring.length);
+    }
+
+    /*
+      lastDelivered and the listener are only touched by the one delivery task the scheduled flag
+      allows at a time. resync and the queue contents change under the ring lock: an overflow sets
+      resync instead of queueing, and catchUp() swaps the queue for a read of the ring.
+     */
+    private final class Subscriber {
+        private final Listener listener;
+        private final ArrayBlockingQueue<ChangeEvent> queue = new ArrayBlockingQueue<>(subscriberQueueSize);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private long lastDelivered;
+        private volatile boolean resync;
+        private volatile boolean closed;
+
+        Subscriber(Listener listener) {
+            this.listener = listener;
+        }
+
+        // Called with the ring lock held
+        void enqueue(ChangeEvent event) {
+            if (!resync && !queue.offer(event)) {
+                queue.clear();
+                resync = true;
+            }
+            schedule();
+        }
+
+        void schedule() {
+            if (!closed && scheduled.compareAndSet(false, true)) {
+                try {
+                    delivery.execute(this::drain);
+                } catch (RuntimeException e) {
+                    // Rejected during shutdown
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+            queue.clear();
+        }
+
+        private void drain() {
+            while (true) {
+                if (resync && !catchUp()) {
+                    return;
+                }
+                ChangeEvent event = queue.poll();
+                if (event == null) {
+                    scheduled.set(false);
+                    // An enqueue that saw scheduled still set is picked up here
+                    if ((queue.isEmpty() && !resync) || !scheduled.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                if (!deliver(event)) {
+                    return;
+                }
+            }
+        }
+
+        private boolean catchUp() {
+            List<ChangeEvent> backlog;
+            long gapAt = 0;
+            synchronized (ring) {
+                resync = false;
+                queue.clear();
+                backlog = eventsAfter(lastDelivered);
+                if (backlog == null) {
+                    gapAt = firstAvailableSequence();
+                    backlog = eventsAfter(gapAt - 1);
+                }
+            }
+
+            if (gapAt > 0) {
+                lastDelivered = gapAt - 1;
+                if (!gap(gapAt)) {
+                    return false;
+                }
+            }
+            for (ChangeEvent event : backlog) {
+                if (!deliver(event)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean deliver(ChangeEvent event) {
+            if (closed) {
+                return false;
+            }
+            if (event.getSequence() <= lastDelivered) {
+                return true;
+            }
+
+            try {
+                listener.onEvent(event);
+                lastDelivered = event.getSequence();
+                return true;
+            } catch (Exception e) {
+                log.debug("Dropping change event listener after delivery failure: {}", e.toString());
+                close();
+                return false;
+            }
+        }
+
+        private boolean gap(long firstAvailable) {
+            try {
+                listener.onGap(firstAvailable);
+                return true;
+            } catch (Exception e) {
+                close();
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.mindex.challenge.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/*
+  Thrown for a write sent to a follower when no leader URL is configured to redirect it to.
+  Surfaces as 503 so clients retry against the leader.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ReadOnlyReplicaException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ReadOnlyReplicaException(String message) {
+        super(message);
+    }
+}
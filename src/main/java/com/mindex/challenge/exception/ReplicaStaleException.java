@@ -0,0 +1,18 @@
+package com.mindex.challenge.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/*
+  Thrown when a follower has not confirmed it is caught up with the leader within the allowed
+  staleness. Surfaces as 503 so clients back off or read from another node.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ReplicaStaleException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ReplicaStaleException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,92 @@
+package com.mindex.challenge.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+  Caps how many events per second a logger (or logger prefix) may emit at or below a level.
+  Turbo filters run before logback builds a LoggingEvent, so a throttled call costs a name
+  check and one CAS instead of formatting, queueing and I/O. WARN and ERROR are never
+  throttled by the default threshold.
+
+  The budget is a token bucket kept as a single "theoretical arrival time" (GCRA): an event
+  is let through if it does not push that time more than `burst` intervals past now.
+  Configured per logger in logback-spring.xml:
+
+    <turboFilter class="com.mindex.challenge.logging.RateLimitingTurboFilter">
+        <loggerName>com.mindex.challenge.service.impl.EmployeeServiceImpl</loggerName>
+        <permitsPerSecond>50</permitsPerSecond>
+    </turboFilter>
+ */
+public class RateLimitingTurboFilter extends TurboFilter {
+
+    private String loggerName = "";
+    private double permitsPerSecond = 100;
+    private int burst = 10;
+    private Level level = Level.INFO;
+
+    private long intervalNanos;
+    private final AtomicLong arrival = new AtomicLong(Long.MIN_VALUE);
+    private final LongAdder suppressed = new LongAdder();
+
+    @Override
+    public void start() {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            addError("permitsPerSecond must be positive and burst at least 1");
+            return;
+        }
+        intervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        super.start();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // A null format is an isXxxEnabled() probe; only the real call should spend a permit
+        if (!isStarted() || format == null || level.levelInt > this.level.levelInt
+                || !logger.getName().startsWith(loggerName)) {
+            return FilterReply.NEUTRAL;
+        }
+        return tryAcquire(System.nanoTime()) ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    boolean tryAcquire(long now) {
+        long tolerance = intervalNanos * (burst - 1);
+        while (true) {
+            long current = arrival.get();
+            long next = Math.max(current, now) + intervalNanos;
+            if (next - now > tolerance + intervalNanos) {
+                suppressed.increment();
+                return false;
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    public long getSuppressedCount() {
+        return suppressed.sum();
+    }
+
+    public void setLoggerName(String loggerName) {
+        this.loggerName = loggerName;
+    }
+
+    public void setPermitsPerSecond(double permitsPerSecond) {
+        this.permitsPerSecond = permitsPerSecond;
+    }
+
+    public void setBurst(int burst) {
+        this.burst = burst;
+    }
+
+    public void setLevel(String level) {
+        this.level = Level.toLevel(level, Level.INFO);
+    }
+}
@@ -0,0 +1,54 @@
+package com.mindex.challenge.replication;
+
+import com.mindex.challenge.exception.ReadOnlyReplicaException;
+import com.mindex.challenge.exception.ReplicaStaleException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/*
+  Makes a follower read-only with bounded staleness. Writes are redirected to the leader with a
+  307 (which keeps the method and body) when challenge.replication.leader-url is set, and refused
+  otherwise. Reads are refused once the follower is staler than max-staleness-ms, and every read
+  it does serve reports its staleness in X-Replica-Staleness-Ms.
+ */
+public class FollowerRequestGuard implements HandlerInterceptor {
+
+    static final String STALENESS_HEADER = "X-Replica-Staleness-Ms";
+
+    private final ReplicationFollower follower;
+    private final String leaderUrl;
+
+    public FollowerRequestGuard(ReplicationFollower follower, String leaderUrl) {
+        this.follower = follower;
+        this.leaderUrl = leaderUrl;
+    }
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                             @NonNull Object handler) {
+        HttpMethod method = HttpMethod.valueOf(request.getMethod());
+        if (method != HttpMethod.GET && method != HttpMethod.HEAD && method != HttpMethod.OPTIONS) {
+            if (leaderUrl.isBlank()) {
+                throw new ReadOnlyReplicaException("This node is a read-only replica");
+            }
+            String query = request.getQueryString();
+            response.setStatus(HttpStatus.TEMPORARY_REDIRECT.value());
+            response.setHeader(HttpHeaders.LOCATION, leaderUrl + request.getRequestURI() + (query == null ? "" : "?" + query));
+            return false;
+        }
+
+        long staleness = follower.stalenessMs();
+        if (staleness > follower.getMaxStalenessMs()) {
+            throw new ReplicaStaleException(staleness == Long.MAX_VALUE
+                    ? "Replica has not synchronised with the leader yet"
+                    : "Replica is " + staleness + " ms behind the leader");
+        }
+        response.setHeader(STALENESS_HEADER, Long.toString(staleness));
+        return true;
+    }
+}
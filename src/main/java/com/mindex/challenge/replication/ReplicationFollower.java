@@ -0,0 +1,258 @@
+package com.mindex.challenge.replication;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mindex.challenge.dao.CompensationRepository;
+import com.mindex.challenge.dao.EmployeeRepository;
+import com.mindex.challenge.data.ChangeEvent;
+import com.mindex.challenge.data.Compensation;
+import com.mindex.challenge.data.Employee;
+import com.mindex.challenge.events.ChangeEventBus;
+import com.mindex.challenge.service.impl.EmployeeSearchIndex;
+import com.mindex.challenge.service.impl.OrgGraph;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+  Follower side of replication, enabled with challenge.replication.role=follower. Connects to
+  challenge.replication.leader (host:port) and applies the leader's write stream to the local
+  repositories and org graph, then republishes each write on the local ChangeEventBus so /events
+  and anything else fed from the bus behaves as it does on the leader.
+
+  Documents are stored with the leader's versions, so ETags and version preconditions agree
+  across nodes, and a document is only replaced by a newer version, which makes snapshot/event
+  overlap and replays idempotent.
+
+  Staleness is the time since the follower last proved it was caught up: events and heartbeats
+  arrive on one ordered stream, so once a heartbeat has been read everything the leader had
+  sent before it has been applied. FollowerRequestGuard rejects reads once this exceeds
+  challenge.replication.max-staleness-ms. On a disconnect or failed apply the follower
+  reconnects and resumes from its position, or takes a fresh snapshot if it cannot.
+ */
+@Component
+@ConditionalOnProperty(name = "challenge.replication.role", havingValue = "follower")
+public class ReplicationFollower {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReplicationFollower.class);
+
+    private static final int SNAPSHOT_BATCH_SIZE = 1000;
+
+    @Value("${challenge.replication.leader:127.0.0.1:7070}")
+    private String leader;
+
+    @Value("${challenge.replication.max-staleness-ms:2000}")
+    private long maxStalenessMs;
+
+    @Value("${challenge.replication.reconnect-ms:500}")
+    private long reconnectMs;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private CompensationRepository compensationRepository;
+
+    @Autowired
+    private OrgGraph orgGraph;
+
+    @Autowired
+    private EmployeeSearchIndex searchIndex;
+
+    @Autowired
+    private ChangeEventBus changeEventBus;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Written only by the replication thread
+    private volatile String epoch;
+    private volatile long appliedSequence;
+    // System.nanoTime() of the last heartbeat read; 0 until the first snapshot or resume completes
+    private volatile long confirmedAt;
+
+    private volatile boolean running = true;
+    private volatile Socket socket;
+    private Thread thread;
+
+    @PostConstruct
+    public void start() {
+        thread = new Thread(this::run, "replication-follower");
+        thread.setDaemon(true);
+        thread.start();
+
+        Gauge.builder("challenge.replication.staleness", this, ReplicationFollower::stalenessMs)
+                .baseUnit("milliseconds").register(meterRegistry);
+        Gauge.builder("challenge.replication.applied-sequence", this, f -> f.appliedSequence).register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        running = false;
+        Socket current = socket;
+        if (current != null) {
+            current.close();
+        }
+        thread.interrupt();
+    }
+
+    public long stalenessMs() {
+        long confirmed = confirmedAt;
+        return confirmed == 0 ? Long.MAX_VALUE : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - confirmed);
+    }
+
+    public boolean isFresh() {
+        return stalenessMs() <= maxStalenessMs;
+    }
+
+    public long getMaxStalenessMs() {
+        return maxStalenessMs;
+    }
+
+    public long appliedSequence() {
+        return appliedSequence;
+    }
+
+    private void run() {
+        while (running) {
+            try (Socket connection = connect();
+                 DataInputStream in = new DataInputStream(new BufferedInputStream(connection.getInputStream()));
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()))) {
+
+                ReplicationProtocol.write(out, ReplicationProtocol.HELLO,
+                        objectMapper.writeValueAsBytes(new ReplicationProtocol.Position(epoch, appliedSequence)));
+                out.flush();
+                LOG.info("Connected to replication leader {} after sequence {}", leader, appliedSequence);
+
+                while (running) {
+                    handle(ReplicationProtocol.read(in), in);
+                }
+            } catch (IOException e) {
+                if (running) {
+                    LOG.warn("Replication from {} interrupted: {}", leader, e.toString());
+                }
+            } catch (RuntimeException e) {
+                // Local store no longer matches the stream; start over from a snapshot
+                LOG.error("Failed to apply replicated write, resyncing from leader", e);
+                epoch = null;
+            }
+
+            if (running) {
+                try {
+                    Thread.sleep(reconnectMs);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private Socket connect() throws IOException {
+        int colon = leader.lastIndexOf(':');
+        Socket connection = new Socket();
+        connection.setTcpNoDelay(true);
+        connection.connect(new InetSocketAddress(leader.substring(0, colon), Integer.parseInt(leader.substring(colon + 1))),
+                (int) reconnectMs * 4);
+        socket = connection;
+        return connection;
+    }
+
+    private void handle(ReplicationProtocol.Frame frame, DataInputStream in) throws IOException {
+        switch (frame.type) {
+            case ReplicationProtocol.SNAPSHOT_BEGIN ->
+                    loadSnapshot(objectMapper.readValue(frame.payload, ReplicationProtocol.Position.class), in);
+            case ReplicationProtocol.EVENT -> {
+                ChangeEvent event = objectMapper.readValue(frame.payload, ChangeEvent.class);
+                apply(event);
+                appliedSequence = event.getSequence();
+            }
+            case ReplicationProtocol.HEARTBEAT -> {
+                ReplicationProtocol.Position position = objectMapper.readValue(frame.payload, ReplicationProtocol.Position.class);
+                if (position.sequence <= appliedSequence) {
+                    confirmedAt = System.nanoTime();
+                }
+            }
+            default -> throw new IOException("Unexpected replication frame type " + frame.type);
+        }
+    }
+
+    // Reads are refused (confirmedAt = 0) until the whole snapshot is in
+    private void loadSnapshot(ReplicationProtocol.Position position, DataInputStream in) throws IOException {
+        confirmedAt = 0;
+        employeeRepository.deleteAll();
+        compensationRepository.deleteAll();
+        orgGraph.invalidate();
+
+        List<Employee> employees = new ArrayList<>(SNAPSHOT_BATCH_SIZE);
+        List<Compensation> compensations = new ArrayList<>(SNAPSHOT_BATCH_SIZE);
+        int employeeCount = 0;
+        int compensationCount = 0;
+        while (true) {
+            ReplicationProtocol.Frame frame = ReplicationProtocol.read(in);
+            if (frame.type == ReplicationProtocol.SNAPSHOT_END) {
+                break;
+            } else if (frame.type == ReplicationProtocol.EMPLOYEE) {
+                employees.add(objectMapper.readValue(frame.payload, Employee.class));
+                employeeCount++;
+                if (employees.size() == SNAPSHOT_BATCH_SIZE) {
+                    employeeRepository.insertVerbatim(employees);
+                    employees.clear();
+                }
+            } else if (frame.type == ReplicationProtocol.COMPENSATION) {
+                compensations.add(objectMapper.readValue(frame.payload, Compensation.class));
+                compensationCount++;
+                if (compensations.size() == SNAPSHOT_BATCH_SIZE) {
+                    compensationRepository.insertVerbatim(compensations);
+                    compensations.clear();
+                }
+            } else {
+                throw new IOException("Unexpected frame type " + frame.type + " inside snapshot");
+            }
+        }
+        employeeRepository.insertVerbatim(employees);
+        compensationRepository.insertVerbatim(compensations);
+        orgGraph.invalidate();
+        searchIndex.invalidate();
+
+        epoch = position.epoch;
+        appliedSequence = position.sequence;
+        confirmedAt = System.nanoTime();
+        LOG.info("Loaded snapshot of {} employees and {} compensations at sequence {}",
+                employeeCount, compensationCount, position.sequence);
+    }
+
+    private void apply(ChangeEvent event) {
+        if (event.getEmployee() != null) {
+            Employee employee = event.getEmployee();
+            if (employeeRepository.replaceIfNewer(employee)) {
+                orgGraph.apply(employee);
+                searchIndex.apply(employee);
+                changeEventBus.publish(ChangeEvent.of(event.getType(), employee));
+            }
+        } else if (event.getCompensation() != null) {
+            Compensation compensation = event.getCompensation();
+            if (compensation.getVersion() == null) {
+                LOG.warn("Dropping {} event {} for employeeId {} without a version",
+                        event.getType(), event.getSequence(), event.getEmployeeId());
+            } else if (compensationRepository.replaceIfNewer(compensation)) {
+                changeEventBus.publish(ChangeEvent.of(event.getType(), compensation));
+            }
+        }
+    }
+}
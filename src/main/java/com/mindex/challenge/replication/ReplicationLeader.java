@@ -0,0 +1,235 @@
+package com.mindex.challenge.replication;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mindex.challenge.data.ChangeEvent;
+import com.mindex.challenge.data.Compensation;
+import com.mindex.challenge.data.Employee;
+import com.mindex.challenge.events.ChangeEventBus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+
+/*
+  Leader side of replication, enabled with challenge.replication.role=leader. Listens on
+  challenge.replication.port and streams every committed write to each connected follower.
+
+  A follower says where it is (epoch and last applied sequence). If that position is still in
+  the ChangeEventBus ring the leader simply subscribes after it; otherwise it first sends a
+  snapshot of both collections, taken after noting the bus position, and subscribes after that.
+  Writes that land while the snapshot is being read can show up twice, once in the snapshot and
+  again as an event, which the follower's version check makes harmless.
+
+  Each follower gets its own bounded queue and sender thread, so a slow follower never holds
+  up the bus or the others. A follower that falls more than max-queued-events behind is
+  disconnected and resumes (or resyncs) when it reconnects. Heartbeats go out every
+  heartbeat-ms whether or not events are flowing, since they are what tells the follower it
+  has caught up.
+ */
+@Component
+@ConditionalOnProperty(name = "challenge.replication.role", havingValue = "leader")
+public class ReplicationLeader {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReplicationLeader.class);
+
+    @Value("${challenge.replication.bind-address:127.0.0.1}")
+    private String bindAddress;
+
+    @Value("${challenge.replication.port:7070}")
+    private int port;
+
+    @Value("${challenge.replication.heartbeat-ms:200}")
+    private long heartbeatMs;
+
+    @Value("${challenge.replication.max-queued-events:65536}")
+    private int maxQueuedEvents;
+
+    @Autowired
+    private ChangeEventBus changeEventBus;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final String epoch = UUID.randomUUID().toString();
+    private final Set<Socket> followers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "replication-sender");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private ServerSocket serverSocket;
+
+    @PostConstruct
+    public void start() throws IOException {
+        serverSocket = new ServerSocket(port, 50, InetAddress.getByName(bindAddress));
+        Thread acceptor = new Thread(this::acceptLoop, "replication-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+
+        Gauge.builder("challenge.replication.followers", followers, Set::size).register(meterRegistry);
+        LOG.info("Replication leader listening on {}:{} (epoch {})", bindAddress, port(), epoch);
+    }
+
+    // The bound port, which differs from the configured one when that is 0
+    public int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    public String epoch() {
+        return epoch;
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        serverSocket.close();
+        for (Socket follower : followers) {
+            follower.close();
+        }
+        senders.shutdownNow();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                followers.add(socket);
+                senders.execute(() -> serve(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    LOG.warn("Failed to accept replication connection: {}", e.toString());
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        String follower = socket.getRemoteSocketAddress().toString();
+        try (socket;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+
+            ReplicationProtocol.Frame hello = ReplicationProtocol.read(in);
+            if (hello.type != ReplicationProtocol.HELLO) {
+                throw new IOException("Expected HELLO, got frame type " + hello.type);
+            }
+            ReplicationProtocol.Position from = objectMapper.readValue(hello.payload, ReplicationProtocol.Position.class);
+
+            long after;
+            if (epoch.equals(from.epoch) && changeEventBus.eventsAfter(from.sequence) != null) {
+                after = from.sequence;
+                LOG.info("Follower {} resuming after sequence {}", follower, after);
+            } else {
+                after = sendSnapshot(out);
+                LOG.info("Sent snapshot at sequence {} to follower {}", after, follower);
+            }
+            stream(out, after);
+        } catch (EOFException | SocketException e) {
+            LOG.info("Follower {} disconnected", follower);
+        } catch (IOException e) {
+            LOG.warn("Replication to follower {} failed: {}", follower, e.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            followers.remove(socket);
+        }
+    }
+
+    private long sendSnapshot(DataOutputStream out) throws IOException {
+        long sequence = changeEventBus.lastSequence();
+        ReplicationProtocol.write(out, ReplicationProtocol.SNAPSHOT_BEGIN,
+                objectMapper.writeValueAsBytes(new ReplicationProtocol.Position(epoch, sequence)));
+
+        try (Stream<Employee> employees = mongoTemplate.stream(new Query(), Employee.class)) {
+            for (Employee employee : (Iterable<Employee>) employees::iterator) {
+                ReplicationProtocol.write(out, ReplicationProtocol.EMPLOYEE, objectMapper.writeValueAsBytes(employee));
+            }
+        }
+        try (Stream<Compensation> compensations = mongoTemplate.stream(new Query(), Compensation.class)) {
+            for (Compensation compensation : (Iterable<Compensation>) compensations::iterator) {
+                ReplicationProtocol.write(out, ReplicationProtocol.COMPENSATION, objectMapper.writeValueAsBytes(compensation));
+            }
+        }
+
+        ReplicationProtocol.write(out, ReplicationProtocol.SNAPSHOT_END, new byte[0]);
+        out.flush();
+        return sequence;
+    }
+
+    private void stream(DataOutputStream out, long after) throws IOException, InterruptedException {
+        BlockingQueue<ChangeEvent> queue = new ArrayBlockingQueue<>(maxQueuedEvents);
+        // Set from bus delivery when this follower can no longer be fed without losing events
+        CompletableFuture<String> broken = new CompletableFuture<>();
+
+        ChangeEventBus.Subscription subscription = changeEventBus.subscribe(after, new ChangeEventBus.Listener() {
+            @Override
+            public void onEvent(ChangeEvent event) {
+                if (!queue.offer(event)) {
+                    broken.complete("more than " + maxQueuedEvents + " events behind");
+                    throw new IllegalStateException("Replication queue full");
+                }
+            }
+
+            @Override
+            public void onGap(long firstAvailableSequence) {
+                broken.complete("events before " + firstAvailableSequence + " are no longer buffered");
+                throw new IllegalStateException("Replication gap");
+            }
+        });
+
+        try {
+            long sent = after;
+            long heartbeatInterval = TimeUnit.MILLISECONDS.toNanos(heartbeatMs);
+            long nextHeartbeat = System.nanoTime();
+            while (true) {
+                long wait = Math.max(0, nextHeartbeat - System.nanoTime());
+                ChangeEvent event = queue.poll(wait, TimeUnit.NANOSECONDS);
+                if (broken.isDone()) {
+                    throw new IOException("Dropping follower: " + broken.getNow(null));
+                }
+
+                // Send whatever else is already queued before flushing
+                while (event != null) {
+                    ReplicationProtocol.write(out, ReplicationProtocol.EVENT, objectMapper.writeValueAsBytes(event));
+                    sent = event.getSequence();
+                    event = queue.poll();
+                }
+
+                // On a timer, not only when idle: a follower under steady writes would otherwise never confirm
+                if (System.nanoTime() - nextHeartbeat >= 0) {
+                    ReplicationProtocol.write(out, ReplicationProtocol.HEARTBEAT,
+                            objectMapper.writeValueAsBytes(new ReplicationProtocol.Position(epoch, sent)));
+                    nextHeartbeat = System.nanoTime() + heartbeatInterval;
+                }
+                out.flush();
+            }
+        } finally {
+            subscription.close();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.mindex.challenge.replication;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/*
+  Wire format between leader and follower: a stream of frames, each [byte type][int length][JSON].
+
+    follower -> leader   HELLO {epoch, sequence}, the position the follower has applied up to
+    leader -> follower   SNAPSHOT_BEGIN {epoch, sequence}, then EMPLOYEE / COMPENSATION documents,
+                         then SNAPSHOT_END, when the follower cannot resume from the event ring
+                         EVENT, one ChangeEvent per committed write, in leader sequence order
+                         HEARTBEAT {epoch, sequence, timestamp} when there has been nothing to send
+
+  epoch identifies one run of the leader. Sequences restart with it, so a follower that presents
+  another epoch always gets a snapshot.
+ */
+final class ReplicationProtocol {
+
+    static final byte HELLO = 1;
+    static final byte SNAPSHOT_BEGIN = 2;
+    static final byte EMPLOYEE = 3;
+    static final byte COMPENSATION = 4;
+    static final byte SNAPSHOT_END = 5;
+    static final byte EVENT = 6;
+    static final byte HEARTBEAT = 7;
+
+    private static final int MAX_FRAME_BYTES = 16 * 1024 * 1024;
+
+    // Payload of HELLO, SNAPSHOT_BEGIN and HEARTBEAT
+    static final class Position {
+        public String epoch;
+        public long sequence;
+        public long timestamp;
+
+        Position() {
+        }
+
+        Position(String epoch, long sequence) {
+            this.epoch = epoch;
+            this.sequence = sequence;
+            this.timestamp = System.currentTimeMillis();
+        }
+    }
+
+    static final class Frame {
+        final byte type;
+        final byte[] payload;
+
+        Frame(byte type, byte[] payload) {
+            this.type = type;
+            this.payload = payload;
+        }
+    }
+
+    private ReplicationProtocol() {
+    }
+
+    static void write(DataOutputStream out, byte type, byte[] payload) throws IOException {
+        out.writeByte(type);
+        out.writeInt(payload.length);
+        out.write(payload);
+    }
+
+    static Frame read(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        int length = in.readInt();
+        if (length < 0 || length > MAX_FRAME_BYTES) {
+            throw new IOException("Invalid replication frame length: " + length);
+        }
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+        return new Frame(type, payload);
+    }
+}
@@ -0,0 +1,26 @@
+package com.mindex.challenge.replication;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Puts FollowerRequestGuard in front of the data endpoints on a follower; /events and actuator stay open
+@Configuration
+@ConditionalOnProperty(name = "challenge.replication.role", havingValue = "follower")
+public class ReplicationWebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private ReplicationFollower follower;
+
+    @Value("${challenge.replication.leader-url:}")
+    private String leaderUrl;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new FollowerRequestGuard(follower, leaderUrl))
+                .addPathPatterns("/employee/**", "/reportingStructure/**", "/compensation/**", "/export/**");
+    }
+}
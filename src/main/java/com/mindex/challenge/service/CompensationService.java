@@ -7,4 +7,5 @@ public interface CompensationService {
     Compensation create(Compensation compensation);
     Compensation read(String employeeId);
     Compensation update(Compensation compensation);
+    Compensation update(Compensation compensation, Long expectedVersion);
 }
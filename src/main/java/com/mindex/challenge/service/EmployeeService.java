@@ -1,12 +1,20 @@
 package com.mindex.challenge.service;
 
 import com.mindex.challenge.data.Employee;
+import com.mindex.challenge.data.EmployeePatch;
 import com.mindex.challenge.data.ReportingStructure;
 
+import java.util.List;
+
 public interface EmployeeService {
     Employee create(Employee employee);
     Employee read(String id);
+    List<Employee> search(String query, int limit);
     Employee update(Employee employee);
+    Employee update(Employee employee, Long expectedVersion);
+    Employee patch(String employeeId, EmployeePatch patch, Long expectedVersion);
     ReportingStructure getReportingStructure(String employeeId);
+    long getEmployeeVersion(String employeeId);
+    long getReportingStructureVersion(String employeeId);
 
 }
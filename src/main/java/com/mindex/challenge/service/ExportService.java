@@ -0,0 +1,15 @@
+package com.mindex.challenge.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ExportService {
+
+    enum Format { NDJSON, CSV }
+
+    /*
+      Writes one row per employee, ordered by employeeId, with its manager, depth and subtree size
+      from the org graph and its current salary and effective date, if it has a compensation.
+     */
+    void exportEmployees(Format format, OutputStream out) throws IOException;
+}
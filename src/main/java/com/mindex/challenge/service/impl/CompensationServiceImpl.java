@@ -1,10 +1,14 @@
 package com.mindex.challenge.service.impl;
 
 import com.mindex.challenge.dao.CompensationRepository;
+import com.mindex.challenge.data.ChangeEvent;
 import com.mindex.challenge.data.Compensation;
 import com.mindex.challenge.data.Employee;
+import com.mindex.challenge.events.ChangeEventBus;
+import com.mindex.challenge.exception.VersionConflictException;
 import com.mindex.challenge.service.CompensationService;
 import com.mindex.challenge.service.EmployeeService;
+import io.micrometer.observation.annotation.Observed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,9 +24,22 @@ public class CompensationServiceImpl implements CompensationService {
 
     @Autowired
     private EmployeeService employeeService;
-   @Override
+
+    @Autowired
+    private ChangeEventBus changeEventBus;
+
+    @Autowired
+    private OrgGraph orgGraph;
+
+    // Present only when challenge.compensation.write-behind.enabled=true
+    @Autowired(required = false)
+    private CompensationWriteBehind writeBehind;
+
+    @Override
+    @Observed(name = "challenge.compensation.service", contextualName = "compensation-create",
+            lowCardinalityKeyValues = {"method", "create"})
 public Compensation create(Compensation compensation) {
-    LOG.debug("Creating compensation [{}]", compensation);
+    LOG.atDebug().log("Creating compensation");
 
     // Validate employee exists
     Employee emp = employeeService.read(compensation.getEmployee().getEmployeeId());
@@ -34,13 +51,28 @@ public Compensation create(Compensation compensation) {
         throw new RuntimeException("Compensation already exists for employeeId: " + emp.getEmployeeId());
     }
 
-    return compensationRepository.save(compensation);
+    compensation.setVersion(0L);
+    Compensation created = compensationRepository.insert(compensation);
+    if (writeBehind != null) {
+        writeBehind.compensationCreated(emp.getEmployeeId());
+    }
+    changeEventBus.publish(ChangeEvent.of(ChangeEvent.Type.COMPENSATION_CREATED, created));
+    return created;
 }
 
 
     @Override
+    @Observed(name = "challenge.compensation.service", contextualName = "compensation-read",
+            lowCardinalityKeyValues = {"method", "read"})
     public Compensation read(String employeeId) {
-        LOG.debug("Reading compensation for [{}]", employeeId);
+        LOG.atDebug().addKeyValue("employeeId", employeeId).log("Reading compensation");
+        if (writeBehind != null) {
+            Compensation queued = writeBehind.pending(employeeId);
+            if (queued != null) {
+                return queued;
+            }
+        }
+
         Compensation comp = compensationRepository.findByEmployee_EmployeeId(employeeId);
         if (comp == null) {
             throw new RuntimeException("No compensation found for employeeId: " + employeeId);
@@ -50,10 +82,46 @@ public Compensation create(Compensation compensation) {
 
     @Override
     public Compensation update(Compensation compensation) {
-        LOG.debug("Updating compensation [{}]", compensation);
-        Employee emp = employeeService.read(compensation.getEmployee().getEmployeeId());
-        compensation.setEmployee(emp);
-        return compensationRepository.save(compensation);
+        return update(compensation, null);
+    }
+
+    @Override
+    @Observed(name = "challenge.compensation.service", contextualName = "compensation-update",
+            lowCardinalityKeyValues = {"method", "update"})
+    public Compensation update(Compensation compensation, Long expectedVersion) {
+        String employeeId = compensation.getEmployee().getEmployeeId();
+        LOG.atDebug()
+                .addKeyValue("employeeId", employeeId)
+                .addKeyValue("expectedVersion", expectedVersion)
+                .log("Updating compensation");
+
+        // Unconditional updates can be acknowledged from the journal; a version check needs the stored document
+        if (writeBehind != null && expectedVersion == null) {
+            Employee emp = orgGraph.snapshot().get(employeeId);
+            if (emp == null) {
+                throw new RuntimeException("Invalid employeeId: " + employeeId);
+            }
+            // The flush can only update an existing document, so refuse here rather than ack a write it would drop
+            if (!writeBehind.hasCompensation(employeeId)) {
+                throw new RuntimeException("No compensation found for employeeId: " + employeeId);
+            }
+            compensation.setEmployee(emp);
+            compensation.setVersion(null);
+            return writeBehind.submit(compensation);
+        }
+
+        // The stored document already embeds a validated employee, so no read is needed before the write
+        Compensation updated = compensationRepository.updateIfVersionMatches(compensation, expectedVersion);
+        if (updated == null) {
+            if (expectedVersion != null && compensationRepository.findByEmployee_EmployeeId(employeeId) != null) {
+                throw new VersionConflictException("Compensation for employeeId " + employeeId
+                        + " is no longer at version " + expectedVersion);
+            }
+            throw new RuntimeException("No compensation found for employeeId: " + employeeId);
+        }
+
+        changeEventBus.publish(ChangeEvent.of(ChangeEvent.Type.COMPENSATION_UPDATED, updated));
+        return updated;
     }
     
 }
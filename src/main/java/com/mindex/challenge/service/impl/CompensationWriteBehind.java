@@ -0,0 +1,430 @@
+package com.mindex.challenge.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mindex.challenge.dao.CompensationRepository;
+import com.mindex.challenge.data.ChangeEvent;
+import com.mindex.challenge.data.Compensation;
+import com.mindex.challenge.data.Employee;
+import com.mindex.challenge.events.ChangeEventBus;
+import com.mindex.challenge.exception.ServiceOverloadedException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/*
+  Optional write-behind path for PUT /compensation, enabled with
+  challenge.compensation.write-behind.enabled=true.
+
+  An update is acknowledged once it has been appended to a local journal and fsync'd. Concurrent
+  callers share one fsync (group commit). Updates are coalesced per employeeId in memory, so the
+  last write wins, and a background flusher writes them to the repository as unordered bulk
+  updates.
+
+  Each flush rotates the journal: the segment holding the batch is renamed *.flushing and deleted
+  only once the batch is in the repository. On startup any leftover segments are replayed, which
+  also covers a flush that failed or was cut short. The number of distinct pending employees is
+  bounded. When it is full, writers wait up to offer-timeout-ms for a flush to make room and then
+  get a 503.
+
+  A flush can only update a compensation that already exists, so submit() is refused for employees
+  without one. Which employees have one is kept in memory, seeded at startup and added to on
+  create, so the check costs no round trip on the hot path.
+ */
+@Component
+@ConditionalOnProperty(name = "challenge.compensation.write-behind.enabled", havingValue = "true")
+public class CompensationWriteBehind {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CompensationWriteBehind.class);
+
+    private static final String JOURNAL_NAME = "compensation.journal";
+    private static final String FLUSHING_SUFFIX = ".flushing";
+
+    @Autowired
+    private CompensationRepository compensationRepository;
+
+    @Autowired
+    private ChangeEventBus changeEventBus;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${challenge.compensation.write-behind.journal-dir:${java.io.tmpdir}/mindex-compensation-journal}")
+    private String journalDir;
+
+    @Value("${challenge.compensation.write-behind.max-pending:10000}")
+    private int maxPending;
+
+    @Value("${challenge.compensation.write-behind.batch-size:500}")
+    private int batchSize;
+
+    @Value("${challenge.compensation.write-behind.flush-interval-ms:100}")
+    private long flushIntervalMs;
+
+    @Value("${challenge.compensation.write-behind.offer-timeout-ms:2000}")
+    private long offerTimeoutMs;
+
+    // Guards pending, the active journal channel and the append counter
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private LinkedHashMap<String, Compensation> pending = new LinkedHashMap<>();
+    private volatile FileChannel journal;
+    private volatile long appended;
+
+    // Guards fsync; a single force covers every append made before it started
+    private final Object syncLock = new Object();
+    private long synced;
+
+    // Batch currently being written, still visible to reads until it lands
+    private volatile Map<String, Compensation> flushing = Collections.emptyMap();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Deque<Path> unflushedSegments = new ArrayDeque<>();
+    private long segmentCounter;
+    private ScheduledExecutorService flusher;
+
+    // Employees known to have a stored compensation
+    private final Set<String> compensated = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void start() throws IOException {
+        Path dir = Paths.get(journalDir);
+        Files.createDirectories(dir);
+
+        compensated.addAll(compensationRepository.findCompensatedEmployeeIds());
+
+        recover(dir);
+        journal = openJournal(dir.resolve(JOURNAL_NAME));
+
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "compensation-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        LOG.info("Compensation write-behind enabled, journal in {}", dir);
+    }
+
+    public Compensation submit(Compensation compensation) {
+        String employeeId = compensation.getEmployee().getEmployeeId();
+        byte[] entry = journalEntry(compensation);
+
+        long ticket;
+        boolean batchReady;
+        lock.lock();
+        try {
+            awaitCapacity(employeeId);
+            writeFully(journal, entry);
+            pending.put(employeeId, compensation);
+            ticket = ++appended;
+            batchReady = pending.size() >= batchSize;
+        } finally {
+            lock.unlock();
+        }
+
+        if (batchReady) {
+            flusher.execute(this::flushQuietly);
+        }
+        syncUpTo(ticket);
+        return compensation;
+    }
+
+    public void compensationCreated(String employeeId) {
+        compensated.add(employeeId);
+    }
+
+    // Falls back to the repository for anything stored outside this service, e.g. before the seed ran
+    public boolean hasCompensation(String employeeId) {
+        if (compensated.contains(employeeId)) {
+            return true;
+        }
+        if (compensationRepository.existsByEmployee_EmployeeId(employeeId)) {
+            compensated.add(employeeId);
+            return true;
+        }
+        return false;
+    }
+
+    // Read-your-writes: the newest acknowledged terms that may not have reached the repository yet
+    public Compensation pending(String employeeId) {
+        lock.lock();
+        try {
+            Compensation queued = pending.get(employeeId);
+            if (queued != null) {
+                return queued;
+            }
+        } finally {
+            lock.unlock();
+        }
+        return flushing.get(employeeId);
+    }
+
+    public int pendingCount() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void flush() {
+        flushLock.lock();
+        try {
+            Map<String, Compensation> batch;
+            lock.lock();
+            try {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = pending;
+                pending = new LinkedHashMap<>();
+                flushing = batch;
+                unflushedSegments.add(rotateJournal());
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+
+            Set<String> landed = new HashSet<>();
+            try {
+                persist(batch, landed);
+            } catch (RuntimeException e) {
+                // Put back what did not land, behind anything newer; its segments stay on disk until a flush succeeds
+                lock.lock();
+                try {
+                    LinkedHashMap<String, Compensation> merged = new LinkedHashMap<>(batch);
+                    merged.keySet().removeAll(landed);
+                    merged.putAll(pending);
+                    pending = merged;
+                } finally {
+                    lock.unlock();
+                }
+                throw e;
+            } finally {
+                flushing = Collections.emptyMap();
+            }
+
+            while (!unflushedSegments.isEmpty()) {
+                Files.deleteIfExists(unflushedSegments.poll());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException, InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+
+        // Anything that still fails to flush here is replayed from the journal on the next start
+        try {
+            flush();
+        } finally {
+            lock.lock();
+            try {
+                journal.force(false);
+                journal.close();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            LOG.warn("Compensation write-behind flush failed, will retry: {}", e.toString());
+        }
+    }
+
+    // Adds the employeeIds of every chunk that reached the repository to landed, so a failure part way
+    // through only has to retry the chunks after it
+    private void persist(Map<String, Compensation> batch, Set<String> landed) {
+        List<Compensation> chunk = new ArrayList<>(Math.min(batch.size(), batchSize));
+        for (Compensation compensation : batch.values()) {
+            chunk.add(compensation);
+            if (chunk.size() == batchSize) {
+                persistChunk(chunk, landed);
+                chunk.clear();
+            }
+        }
+        persistChunk(chunk, landed);
+    }
+
+    private void persistChunk(List<Compensation> chunk, Set<String> landed) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        List<String> employeeIds = new ArrayList<>(chunk.size());
+        for (Compensation compensation : chunk) {
+            employeeIds.add(compensation.getEmployee().getEmployeeId());
+        }
+
+        int matched = compensationRepository.updateAll(chunk);
+        landed.addAll(employeeIds);
+        if (matched < chunk.size()) {
+            LOG.warn("{} write-behind compensation updates had no existing compensation to apply to",
+                    chunk.size() - matched);
+        }
+
+        // Publish the stored documents: followers need the version the update produced and the embedded employee
+        for (Compensation stored : compensationRepository.findByEmployee_EmployeeIdIn(employeeIds)) {
+            changeEventBus.publish(ChangeEvent.of(ChangeEvent.Type.COMPENSATION_UPDATED, stored));
+        }
+    }
+
+    private void awaitCapacity(String employeeId) {
+        long remaining = TimeUnit.MILLISECONDS.toNanos(offerTimeoutMs);
+        while (pending.size() >= maxPending && !pending.containsKey(employeeId)) {
+            if (remaining <= 0) {
+                throw new ServiceOverloadedException("Compensation write-behind queue is full");
+            }
+            try {
+                remaining = notFull.awaitNanos(remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServiceOverloadedException("Interrupted waiting for compensation write-behind capacity");
+            }
+        }
+    }
+
+    private void syncUpTo(long ticket) {
+        synchronized (syncLock) {
+            if (synced >= ticket) {
+                return;
+            }
+            long target = appended;
+            try {
+                journal.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            synced = target;
+        }
+    }
+
+    // Called with lock held, so no appends race the rename
+    private Path rotateJournal() throws IOException {
+        Path active = Paths.get(journalDir, JOURNAL_NAME);
+        Path rotated = Paths.get(journalDir, JOURNAL_NAME + "." + (++segmentCounter) + FLUSHING_SUFFIX);
+
+        synchronized (syncLock) {
+            journal.force(false);
+            synced = appended;
+            journal.close();
+        }
+        Files.move(active, rotated);
+        journal = openJournal(active);
+        return rotated;
+    }
+
+    private void recover(Path dir) throws IOException {
+        List<Path> segments;
+        try (Stream<Path> files = Files.list(dir)) {
+            segments = files
+                    .filter(path -> path.getFileName().toString().startsWith(JOURNAL_NAME))
+                    .sorted(Comparator.comparingLong(CompensationWriteBehind::segmentOrder))
+                    .toList();
+        }
+        if (segments.isEmpty()) {
+            return;
+        }
+
+        LinkedHashMap<String, Compensation> recovered = new LinkedHashMap<>();
+        for (Path segment : segments) {
+            try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) continue;
+                    try {
+                        Compensation compensation = objectMapper.readValue(line, Compensation.class);
+                        recovered.put(compensation.getEmployee().getEmployeeId(), compensation);
+                    } catch (IOException e) {
+                        // A torn final line was never acknowledged
+                        LOG.warn("Skipping unreadable compensation journal entry in {}", segment);
+                    }
+                }
+            }
+        }
+
+        LOG.info("Replaying {} compensation updates from {} journal segments", recovered.size(), segments.size());
+        persist(recovered, new HashSet<>());
+        for (Path segment : segments) {
+            Files.delete(segment);
+        }
+    }
+
+    // The active journal is newest; rotated segments are ordered by their counter
+    private static long segmentOrder(Path path) {
+        String name = path.getFileName().toString();
+        if (name.equals(JOURNAL_NAME)) {
+            return Long.MAX_VALUE;
+        }
+        String counter = name.substring(JOURNAL_NAME.length() + 1, name.length() - FLUSHING_SUFFIX.length());
+        return Long.parseLong(counter);
+    }
+
+    private static FileChannel openJournal(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private static void writeFully(FileChannel channel, byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Only the employeeId of the embedded employee is journaled; the stored document keeps its own copy
+    private byte[] journalEntry(Compensation compensation) {
+        Employee reference = new Employee();
+        reference.setEmployeeId(compensation.getEmployee().getEmployeeId());
+
+        Compensation entry = new Compensation();
+        entry.setEmployee(reference);
+        entry.setSalary(compensation.getSalary());
+        entry.setEffectiveDate(compensation.getEffectiveDate());
+
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(entry);
+            byte[] line = Arrays.copyOf(json, json.length + 1);
+            line[json.length] = '\n';
+            return line;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
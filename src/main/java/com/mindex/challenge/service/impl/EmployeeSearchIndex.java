@@ -0,0 +1,422 @@
+package com.mindex.challenge.service.impl;
+
+import com.mindex.challenge.dao.EmployeeRepository;
+import com.mindex.challenge.data.Employee;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+  In-memory name/title search behind GET /employee/search. Loaded from the repository on first
+  use, like OrgGraph, and kept current by the same writes that update the graph.
+
+  Every field value is split into lowercase word tokens. A sorted term dictionary maps each
+  token to the rows that contain it, so a query word matches by prefix with one range scan;
+  optionally, first- and last-name tokens are also indexed by trigram so that a word of three
+  or more letters can match inside a name ("son" finds Johnson).
+
+  Posting lists are append-only. A write adds the row under its new tokens and leaves the old
+  postings behind; every candidate is re-checked against the row's current tokens, so a leftover
+  posting only costs a rejected candidate, and the lists are rebuilt once the leftovers outnumber
+  the live entries.
+
+  Ranking: for each query word, its best match in the row (exact word 3, prefix 2, inside a name
+  1) times the field weight (names 4, position 2, department 1), summed; ties go to the shorter
+  name. Candidates come from the most selective query word and are capped at
+  challenge.search.max-candidates, which bounds the cost of one- or two-letter queries.
+ */
+@Component
+public class EmployeeSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeSearchIndex.class);
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${challenge.search.max-candidates:10000}")
+    private int maxCandidates;
+
+    @Value("${challenge.search.trigrams:true}")
+    private boolean trigrams;
+
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Index index;
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("challenge.search.index.size", this, searchIndex -> {
+                    Index current = searchIndex.index;
+                    return current == null ? 0 : current.size();
+                })
+                .description("Employees held by the loaded search index")
+                .register(meterRegistry);
+    }
+
+    public Index index() {
+        Index current = index;
+        if (current != null) {
+            return current;
+        }
+
+        synchronized (this) {
+            if (index == null) {
+                long loadedGeneration = generation.get();
+                Index loaded = new Index(employeeRepository.findAll(), trigrams, maxCandidates);
+                log.debug("Loaded search index with {} employees", loaded.size());
+
+                // A write that landed while we were loading makes this index stale already
+                if (generation.get() != loadedGeneration) {
+                    return loaded;
+                }
+                index = loaded;
+            }
+            return index;
+        }
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        index = null;
+    }
+
+    public void apply(Employee written) {
+        generation.incrementAndGet();
+        Index current = index;
+        if (current != null) {
+            current.put(written);
+        }
+    }
+
+    public List<Employee> search(String query, int limit) {
+        return index().search(query, limit);
+    }
+
+    public static final class Index {
+        private static final int FIRST_NAME = 0;
+        private static final int LAST_NAME = 1;
+        private static final int POSITION = 2;
+        private static final int DEPARTMENT = 3;
+        private static final int[] FIELD_WEIGHTS = {4, 4, 2, 1};
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final boolean trigrams;
+        private final int maxCandidates;
+
+        private final Map<String, Integer> rows = new HashMap<>();
+        private String[] employeeIds = new String[16];
+        private String[][] fields = new String[16][];
+        private String[][] tokens = new String[16][];
+        private byte[][] tokenFields = new byte[16][];
+        private int size;
+
+        private final TreeMap<String, Postings> terms = new TreeMap<>();
+        private final Map<String, Postings> grams = new HashMap<>();
+        private long postingEntries;
+        private long liveEntries;
+
+        Index(List<Employee> employees, boolean trigrams, int maxCandidates) {
+            this.trigrams = trigrams;
+            this.maxCandidates = maxCandidates;
+            for (Employee employee : employees) {
+                if (employee.getEmployeeId() != null) {
+                    put(employee);
+                }
+            }
+        }
+
+        public int size() {
+            return size;
+        }
+
+        void put(Employee employee) {
+            lock.writeLock().lock();
+            try {
+                Integer existing = rows.get(employee.getEmployeeId());
+                int row;
+                if (existing == null) {
+                    row = size++;
+                    if (row == employeeIds.length) {
+                        grow(row * 2);
+                    }
+                    employeeIds[row] = employee.getEmployeeId();
+                    rows.put(employee.getEmployeeId(), row);
+                } else {
+                    row = existing;
+                    liveEntries -= entriesOf(row);
+                }
+
+                fields[row] = new String[]{employee.getFirstName(), employee.getLastName(),
+                        employee.getPosition(), employee.getDepartment()};
+                List<String> rowTokens = new ArrayList<>(8);
+                List<Integer> rowFields = new ArrayList<>(8);
+                for (int field = FIRST_NAME; field <= DEPARTMENT; field++) {
+                    for (String token : tokenize(fields[row][field])) {
+                        rowTokens.add(token);
+                        rowFields.add(field);
+                    }
+                }
+                tokens[row] = rowTokens.toArray(new String[0]);
+                tokenFields[row] = new byte[rowFields.size()];
+                for (int i = 0; i < rowFields.size(); i++) {
+                    tokenFields[row][i] = rowFields.get(i).byteValue();
+                }
+
+                long added = addPostings(row);
+                postingEntries += added;
+                liveEntries += added;
+                if (postingEntries > 2 * liveEntries + 4096) {
+                    rebuildPostings();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private long addPostings(int row) {
+            long added = 0;
+            for (int i = 0; i < tokens[row].length; i++) {
+                String token = tokens[row][i];
+                terms.computeIfAbsent(token, t -> new Postings()).add(row);
+                added++;
+                if (trigrams && tokenFields[row][i] <= LAST_NAME) {
+                    for (int start = 0; start + 3 <= token.length(); start++) {
+                        grams.computeIfAbsent(token.substring(start, start + 3), g -> new Postings()).add(row);
+                        added++;
+                    }
+                }
+            }
+            return added;
+        }
+
+        private long entriesOf(int row) {
+            long entries = tokens[row].length;
+            if (trigrams) {
+                for (int i = 0; i < tokens[row].length; i++) {
+                    if (tokenFields[row][i] <= LAST_NAME) {
+                        entries += Math.max(0, tokens[row][i].length() - 2);
+                    }
+                }
+            }
+            return entries;
+        }
+
+        private void rebuildPostings() {
+            terms.clear();
+            grams.clear();
+            postingEntries = 0;
+            for (int row = 0; row < size; row++) {
+                postingEntries += addPostings(row);
+            }
+            liveEntries = postingEntries;
+        }
+
+        private void grow(int capacity) {
+            employeeIds = Arrays.copyOf(employeeIds, capacity);
+            fields = Arrays.copyOf(fields, capacity);
+            tokens = Arrays.copyOf(tokens, capacity);
+            tokenFields = Arrays.copyOf(tokenFields, capacity);
+        }
+
+        public List<Employee> search(String query, int limit) {
+            String[] words = tokenize(query).toArray(new String[0]);
+            if (words.length == 0 || limit <= 0) {
+                return List.of();
+            }
+
+            lock.readLock().lock();
+            try {
+                // Drive from the word whose prefix range holds the fewest postings
+                String driver = words[0];
+                long fewest = prefixPostings(driver, Long.MAX_VALUE);
+                for (int i = 1; i < words.length; i++) {
+                    long count = prefixPostings(words[i], fewest);
+                    if (count < fewest) {
+                        fewest = count;
+                        driver = words[i];
+                    }
+                }
+
+                PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, Hit.WORST_FIRST);
+                BitSet seen = new BitSet(size);
+                int examined = 0;
+
+                candidates:
+                for (Postings postings : prefixRange(driver).values()) {
+                    for (int i = 0; i < postings.size; i++) {
+                        int row = postings.rows[i];
+                        if (seen.get(row)) continue;
+                        seen.set(row);
+                        if (++examined > maxCandidates) break candidates;
+                        consider(row, words, top, limit);
+                    }
+                }
+
+                if (trigrams && top.size() < limit && examined <= maxCandidates && driver.length() >= 3) {
+                    Postings postings = rarestGram(driver);
+                    for (int i = 0; postings != null && i < postings.size; i++) {
+                        int row = postings.rows[i];
+                        if (seen.get(row)) continue;
+                        seen.set(row);
+                        if (++examined > maxCandidates) break;
+                        consider(row, words, top, limit);
+                    }
+                }
+
+                List<Hit> hits = new ArrayList<>(top);
+                hits.sort(Hit.WORST_FIRST.reversed());
+                List<Employee> results = new ArrayList<>(hits.size());
+                for (Hit hit : hits) {
+                    results.add(toEmployee(hit.row));
+                }
+                return results;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void consider(int row, String[] words, PriorityQueue<Hit> top, int limit) {
+            int score = score(row, words);
+            if (score == 0) {
+                return;
+            }
+            top.offer(new Hit(row, score, nameLength(row), employeeIds[row]));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        // 0 unless every query word matches the row's current tokens
+        private int score(int row, String[] words) {
+            int total = 0;
+            for (String word : words) {
+                int best = 0;
+                for (int i = 0; i < tokens[row].length; i++) {
+                    String token = tokens[row][i];
+                    int field = tokenFields[row][i];
+                    int match = token.equals(word) ? 3
+                            : token.startsWith(word) ? 2
+                            : trigrams && field <= LAST_NAME && word.length() >= 3 && token.contains(word) ? 1
+                            : 0;
+                    best = Math.max(best, match * FIELD_WEIGHTS[field]);
+                }
+                if (best == 0) {
+                    return 0;
+                }
+                total += best;
+            }
+            return total;
+        }
+
+        private int nameLength(int row) {
+            String first = fields[row][FIRST_NAME];
+            String last = fields[row][LAST_NAME];
+            return (first == null ? 0 : first.length()) + (last == null ? 0 : last.length());
+        }
+
+        private SortedMap<String, Postings> prefixRange(String prefix) {
+            return terms.subMap(prefix, prefix + Character.MAX_VALUE);
+        }
+
+        // Stops counting once past the given bound
+        private long prefixPostings(String prefix, long bound) {
+            long count = 0;
+            for (Postings postings : prefixRange(prefix).values()) {
+                count += postings.size;
+                if (count >= bound) break;
+            }
+            return count;
+        }
+
+        // Any row containing the word contains all of its trigrams, so the shortest list is a complete candidate set
+        private Postings rarestGram(String word) {
+            Postings rarest = null;
+            for (int start = 0; start + 3 <= word.length(); start++) {
+                Postings postings = grams.get(word.substring(start, start + 3));
+                if (postings == null) {
+                    return null;
+                }
+                if (rarest == null || postings.size < rarest.size) {
+                    rarest = postings;
+                }
+            }
+            return rarest;
+        }
+
+        private Employee toEmployee(int row) {
+            String[] values = fields[row];
+            Employee employee = new Employee();
+            employee.setEmployeeId(employeeIds[row]);
+            employee.setFirstName(values[FIRST_NAME]);
+            employee.setLastName(values[LAST_NAME]);
+            employee.setPosition(values[POSITION]);
+            employee.setDepartment(values[DEPARTMENT]);
+            return employee;
+        }
+
+        // Lowercase runs of letters and digits
+        static List<String> tokenize(String text) {
+            if (text == null || text.isEmpty()) {
+                return List.of();
+            }
+            List<String> tokens = new ArrayList<>(4);
+            int start = -1;
+            for (int i = 0; i <= text.length(); i++) {
+                boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+                if (wordChar && start < 0) {
+                    start = i;
+                } else if (!wordChar && start >= 0) {
+                    tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                    start = -1;
+                }
+            }
+            return tokens;
+        }
+    }
+
+    // Row ids in insertion order; a row is appended at most once in a row
+    private static final class Postings {
+        int[] rows = new int[2];
+        int size;
+
+        void add(int row) {
+            if (size > 0 && rows[size - 1] == row) {
+                return;
+            }
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            rows[size++] = row;
+        }
+    }
+
+    private static final class Hit {
+        // Lower score, then longer name, then larger id, comes first
+        static final Comparator<Hit> WORST_FIRST = Comparator.<Hit>comparingInt(hit -> hit.score)
+                .thenComparing(Comparator.<Hit>comparingInt(hit -> hit.nameLength).reversed())
+                .thenComparing(Comparator.<Hit, String>comparing(hit -> hit.employeeId).reversed());
+
+        final int row;
+        final int score;
+        final int nameLength;
+        final String employeeId;
+
+        Hit(int row, int score, int nameLength, String employeeId) {
+            this.row = row;
+            this.score = score;
+            this.nameLength = nameLength;
+            this.employeeId = employeeId;
+        }
+    }
+}
@@ -1,11 +1,21 @@
 package com.mindex.challenge.service.impl;
 
 import com.mindex.challenge.dao.EmployeeRepository;
+import com.mindex.challenge.data.ChangeEvent;
 import com.mindex.challenge.data.Employee;
 import com.mindex.challenge.data.EmployeeDTO;
+import com.mindex.challenge.data.EmployeePatch;
 import com.mindex.challenge.data.ReportingStructure;
+import com.mindex.challenge.events.ChangeEventBus;
+import com.mindex.challenge.exception.VersionConflictException;
 import com.mindex.challenge.service.EmployeeService;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.annotation.Observed;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,7 +23,7 @@ import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
 @Service
 public class EmployeeServiceImpl implements EmployeeService {
@@ -23,119 +33,229 @@ public class EmployeeServiceImpl implements EmployeeService {
     @Autowired
     private EmployeeRepository employeeRepository;
 
+    @Autowired
+    private OrgGraph orgGraph;
+
+    @Autowired
+    private EmployeeSearchIndex searchIndex;
+
+    @Autowired
+    private ChangeEventBus changeEventBus;
+
+    @Autowired
+    private ObservationRegistry observationRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private DistributionSummary subtreeSize;
+    private DistributionSummary subtreeDepth;
+
+    // Concurrent builds of the same structure against the same graph generation share one traversal
+    private final SingleFlight<String, ReportingStructure> reportingStructureFlights = new SingleFlight<>();
+
+    @PostConstruct
+    public void registerMetrics() {
+        subtreeSize = DistributionSummary.builder("challenge.reporting-structure.subtree.size")
+                .description("Employees in a built reporting structure, including its root")
+                .baseUnit("employees")
+                .register(meterRegistry);
+        subtreeDepth = DistributionSummary.builder("challenge.reporting-structure.subtree.depth")
+                .description("Levels below the root of a built reporting structure")
+                .baseUnit("levels")
+                .register(meterRegistry);
+        reportingStructureFlights.registerMetrics(meterRegistry, "reportingStructure");
+    }
+
     // Reporting Structure
     @Override
     @Cacheable("reportingStructure")
+    @Observed(name = "challenge.employee.service", contextualName = "employee-reporting-structure",
+            lowCardinalityKeyValues = {"method", "getReportingStructure"})
     public ReportingStructure getReportingStructure(String employeeId) {
-        log.info("Fetching ReportingStructure for employeeId: {}", employeeId);
+        // The generation is read first, so a caller that has already seen a write never joins a build started before it
+        return reportingStructureFlights.execute(employeeId + ":" + orgGraph.generation(),
+                () -> buildReportingStructure(employeeId));
+    }
 
-        // Preload all employees at once to avoid multiple DB lookups
-        List<Employee> allEmployees = employeeRepository.findAll();
-        Map<String, Employee> employeeMap = allEmployees.stream()
-                .collect(Collectors.toMap(Employee::getEmployeeId, e -> e));
+    private ReportingStructure buildReportingStructure(String employeeId) {
+        // Shared in-memory org graph, loaded once and rebuilt only after writes
+        OrgGraph.Snapshot graph = stage("graph", orgGraph::snapshot);
 
-        // Validate input employeeId
-        Employee employee = employeeMap.get(employeeId);
-        if (employee == null) {
-            throw new RuntimeException("Invalid employeeId: " + employeeId);
-        }
+        return graph.read(() -> {
+            // Validate input employeeId
+            int root = graph.indexOf(employeeId);
+            if (root < 0) {
+                throw new RuntimeException("Invalid employeeId: " + employeeId);
+            }
+
+            // Count all distinct reports
+            int numberOfReports = stage("count", () -> countReports(graph, root));
 
-        //Initialize a visited set for cycle detection
-        Set<String> visited = new HashSet<>();
+            // Convert employee hierarchy to a DTO (fully expanded)
+            EmployeeDTO dto = stage("convert", () -> convertToDTO(graph, root));
 
-        // Count all distinct reports recursively
-        int numberOfReports = countReports(employee, employeeMap, visited);
+            return recordBuilt(employeeId, dto, numberOfReports);
+        });
+    }
 
-        // Convert employee hierarchy to a DTO (fully expanded)
-        visited.clear(); // reset visited to avoid skipping nodes in conversion
-        EmployeeDTO dto = convertToDTO(employee, employeeMap, visited);
+    private ReportingStructure recordBuilt(String employeeId, EmployeeDTO dto, int numberOfReports) {
+        subtreeSize.record(numberOfReports + 1);
+        subtreeDepth.record(depthOf(dto));
 
-        log.info("ReportingStructure generated for {} with {} reports",
-                employee.getFirstName(), numberOfReports);
+        // Structured fields, built only when DEBUG is on; rate-limited in logback-spring.xml
+        if (log.isDebugEnabled()) {
+            log.atDebug()
+                    .addKeyValue("employeeId", employeeId)
+                    .addKeyValue("reports", numberOfReports)
+                    .log("ReportingStructure generated");
+        }
 
         return new ReportingStructure(dto, numberOfReports);
     }
 
-    // Recursively count all distinct reports under an employee
-    private int countReports(Employee employee,
-                             Map<String, Employee> employeeMap,
-                             Set<String> visited) {
+    // One timer and span per stage, so a slow build splits into graph load vs traversal
+    private <T> T stage(String name, Supplier<T> work) {
+        return Observation.createNotStarted("challenge.reporting-structure.stage", observationRegistry)
+                .contextualName("reporting-structure-" + name)
+                .lowCardinalityKeyValue("stage", name)
+                .observe(work);
+    }
 
-        if (employee == null || employee.getDirectReports() == null) {
-            return 0;
+    private static int depthOf(EmployeeDTO root) {
+        int maxDepth = 0;
+        Deque<EmployeeDTO> level = new ArrayDeque<>(List.of(root));
+        while (true) {
+            Deque<EmployeeDTO> next = new ArrayDeque<>();
+            for (EmployeeDTO dto : level) {
+                if (dto.getDirectReports() != null) next.addAll(dto.getDirectReports());
+            }
+            if (next.isEmpty()) return maxDepth;
+            maxDepth++;
+            level = next;
         }
+    }
+
+    // Version stamps used for conditional GETs; both are answered from the org graph
+    @Override
+    public long getEmployeeVersion(String employeeId) {
+        return orgGraph.snapshot().version(employeeId);
+    }
+
+    @Override
+    public long getReportingStructureVersion(String employeeId) {
+        return orgGraph.snapshot().subtreeVersion(employeeId);
+    }
+
+    // Count all distinct reports under a row; callers hold the graph's read lock (package-private for JMH)
+    static int countReports(OrgGraph.Snapshot graph, int root) {
+        BitSet visited = new BitSet(graph.size());
+        visited.set(root);
 
+        int[] stack = new int[16];
+        int top = 0;
+        stack[top++] = root;
         int total = 0;
 
-        for (Employee report : employee.getDirectReports()) {
-            String id = report.getEmployeeId();
-            if (id == null) continue;
+        while (top > 0) {
+            int node = stack[--top];
+            for (int edge = graph.firstEdge(node), end = graph.endEdge(node); edge < end; edge++) {
+                int child = graph.edgeTarget(edge);
 
-            // Skip self-reference and prevent cycles
-            if (employee.getEmployeeId().equals(id) || visited.contains(id)) {
-                continue;
-            }
+                // Prevent cycles and count each report once
+                if (visited.get(child)) continue;
+                visited.set(child);
+                total++;
 
-            visited.add(id);
-            Employee fullReport = employeeMap.get(id);
-            if (fullReport != null) {
-                total += 1 + countReports(fullReport, employeeMap, visited);
+                if (top == stack.length) {
+                    stack = Arrays.copyOf(stack, top * 2);
+                }
+                stack[top++] = child;
             }
         }
 
         return total;
     }
 
-    // Recursively build full EmployeeDTO hierarchy with all report details
-    private EmployeeDTO convertToDTO(Employee employee,
-                                     Map<String, Employee> employeeMap,
-                                     Set<String> visited) {
+    // Build the full EmployeeDTO hierarchy depth-first in directReports order, with an explicit stack
+    // so a deep chain cannot overflow the call stack; callers hold the graph's read lock
+    static EmployeeDTO convertToDTO(OrgGraph.Snapshot graph, int root) {
+        BitSet visited = new BitSet(graph.size());
+        visited.set(root);
+        EmployeeDTO rootDTO = newDTO(graph, root);
+
+        int[] nodes = new int[16];
+        int[] cursors = new int[16];
+        EmployeeDTO[] dtos = new EmployeeDTO[16];
+        nodes[0] = root;
+        cursors[0] = graph.firstEdge(root);
+        dtos[0] = rootDTO;
+        int top = 1;
+
+        while (top > 0) {
+            int frame = top - 1;
+            if (cursors[frame] == graph.endEdge(nodes[frame])) {
+                top--;
+                continue;
+            }
 
-        if (employee == null) return null;
-        if (visited.contains(employee.getEmployeeId())) {
-            log.warn("Cycle detected during DTO conversion for employeeId: {}", employee.getEmployeeId());
-            return null;
-        }
+            int child = graph.edgeTarget(cursors[frame]++);
+            if (visited.get(child)) {
+                log.warn("Cycle detected during DTO conversion for employeeId: {}", graph.employeeId(child));
+                continue;
+            }
+            visited.set(child);
 
-        visited.add(employee.getEmployeeId());
+            EmployeeDTO childDTO = newDTO(graph, child);
+            dtos[frame].getDirectReports().add(childDTO);
 
-        EmployeeDTO dto = new EmployeeDTO();
-        dto.setEmployeeId(employee.getEmployeeId());
-        dto.setFirstName(employee.getFirstName());
-        dto.setLastName(employee.getLastName());
-        dto.setDepartment(employee.getDepartment());
-        dto.setPosition(employee.getPosition());
-
-        if (employee.getDirectReports() != null && !employee.getDirectReports().isEmpty()) {
-            List<EmployeeDTO> reports = new ArrayList<>();
-            for (Employee dr : employee.getDirectReports()) {
-                String id = dr.getEmployeeId();
-                if (id == null || id.equals(employee.getEmployeeId())) continue;
-
-                Employee full = employeeMap.get(id);
-                EmployeeDTO childDTO = convertToDTO(full, employeeMap, visited);
-                if (childDTO != null) reports.add(childDTO);
+            if (top == nodes.length) {
+                nodes = Arrays.copyOf(nodes, top * 2);
+                cursors = Arrays.copyOf(cursors, top * 2);
+                dtos = Arrays.copyOf(dtos, top * 2);
             }
-            dto.setDirectReports(reports);
-        } else {
-            dto.setDirectReports(Collections.emptyList());
+            nodes[top] = child;
+            cursors[top] = graph.firstEdge(child);
+            dtos[top] = childDTO;
+            top++;
         }
 
+        return rootDTO;
+    }
+
+    private static EmployeeDTO newDTO(OrgGraph.Snapshot graph, int row) {
+        EmployeeDTO dto = new EmployeeDTO();
+        dto.setEmployeeId(graph.employeeId(row));
+        dto.setFirstName(graph.firstName(row));
+        dto.setLastName(graph.lastName(row));
+        dto.setDepartment(graph.department(row));
+        dto.setPosition(graph.position(row));
+
+        int reports = graph.endEdge(row) - graph.firstEdge(row);
+        dto.setDirectReports(reports == 0 ? Collections.emptyList() : new ArrayList<>(reports));
         return dto;
     }
 
     // CRUD Operations
     @Override
+    @Observed(name = "challenge.employee.service", contextualName = "employee-create",
+            lowCardinalityKeyValues = {"method", "create"})
     public Employee create(Employee employee) {
-        log.debug("Creating employee [{}]", employee);
+        log.atDebug().addKeyValue("position", employee.getPosition()).log("Creating employee");
         employee.setEmployeeId(UUID.randomUUID().toString());
+        employee.setVersion(0L);
         employeeRepository.insert(employee);
+        orgGraph.apply(employee);
+        searchIndex.apply(employee);
+        changeEventBus.publish(ChangeEvent.of(ChangeEvent.Type.EMPLOYEE_CREATED, employee));
         return employee;
     }
 
     @Override
+    @Observed(name = "challenge.employee.service", contextualName = "employee-read",
+            lowCardinalityKeyValues = {"method", "read"})
     public Employee read(String id) {
-        log.debug("Reading employee with id [{}]", id);
+        log.atDebug().addKeyValue("employeeId", id).log("Reading employee");
         Employee employee = employeeRepository.findByEmployeeId(id);
 
         if (employee == null) {
@@ -145,16 +265,77 @@ public class EmployeeServiceImpl implements EmployeeService {
         return employee;
     }
 
+    @Override
+    @Observed(name = "challenge.employee.service", contextualName = "employee-search",
+            lowCardinalityKeyValues = {"method", "search"})
+    public List<Employee> search(String query, int limit) {
+        log.atDebug().addKeyValue("limit", limit).log("Searching employees");
+        return searchIndex.search(query == null ? "" : query, limit);
+    }
+
     @Override
     public Employee update(Employee employee) {
-        log.debug("Updating employee [{}]", employee);
-        Employee existingEmployee = employeeRepository.findByEmployeeId(employee.getEmployeeId());
+        return update(employee, null);
+    }
 
-        if (existingEmployee == null) {
+    @Override
+    @Observed(name = "challenge.employee.service", contextualName = "employee-update",
+            lowCardinalityKeyValues = {"method", "update"})
+    public Employee update(Employee employee, Long expectedVersion) {
+        log.atDebug()
+                .addKeyValue("employeeId", employee.getEmployeeId())
+                .addKeyValue("expectedVersion", expectedVersion)
+                .log("Updating employee");
+
+        // Conditional update-by-id in one round trip; only a miss needs a second look to explain itself
+        Employee updated = employeeRepository.updateIfVersionMatches(employee, expectedVersion);
+        if (updated == null) {
+            if (expectedVersion != null && employeeRepository.findByEmployeeId(employee.getEmployeeId()) != null) {
+                throw new VersionConflictException("Employee " + employee.getEmployeeId()
+                        + " is no longer at version " + expectedVersion);
+            }
             throw new RuntimeException("Invalid employeeId: " + employee.getEmployeeId());
         }
 
-        employeeRepository.save(employee);
-        return employee;
+        orgGraph.apply(updated);
+        searchIndex.apply(updated);
+        changeEventBus.publish(ChangeEvent.of(ChangeEvent.Type.EMPLOYEE_UPDATED, updated));
+        return updated;
+    }
+
+    @Override
+    @Observed(name = "challenge.employee.service", contextualName = "employee-patch",
+            lowCardinalityKeyValues = {"method", "patch"})
+    public Employee patch(String employeeId, EmployeePatch patch, Long expectedVersion) {
+        log.atDebug()
+                .addKeyValue("employeeId", employeeId)
+                .addKeyValue("expectedVersion", expectedVersion)
+                .log("Patching employee");
+        // Nothing to write, but the precondition still has to hold, as it would for any other write
+        if (patch == null || patch.isEmpty()) {
+            Employee current = read(employeeId);
+            if (expectedVersion != null && !expectedVersion.equals(current.getVersion())) {
+                throw new VersionConflictException("Employee " + employeeId
+                        + " is no longer at version " + expectedVersion);
+            }
+            return current;
+        }
+
+        Employee patched = employeeRepository.patchIfVersionMatches(employeeId, patch, expectedVersion);
+        if (patched == null) {
+            if (expectedVersion != null && employeeRepository.findByEmployeeId(employeeId) != null) {
+                throw new VersionConflictException("Employee " + employeeId
+                        + " is no longer at version " + expectedVersion);
+            }
+            throw new RuntimeException("Invalid employeeId: " + employeeId);
+        }
+
+        // Only a patch that really moved reporting lines forces the org graph to rebuild
+        if (orgGraph.apply(patched)) {
+            log.atDebug().addKeyValue("employeeId", employeeId).log("Patch changed the hierarchy; org graph will be rebuilt");
+        }
+        searchIndex.apply(patched);
+        changeEventBus.publish(ChangeEvent.of(ChangeEvent.Type.EMPLOYEE_PATCHED, patched));
+        return patched;
     }
 }
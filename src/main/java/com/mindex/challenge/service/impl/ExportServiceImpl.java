@@ -0,0 +1,208 @@
+package com.mindex.challenge.service.impl;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mindex.challenge.data.Compensation;
+import com.mindex.challenge.data.Employee;
+import com.mindex.challenge.service.ExportService;
+import io.micrometer.observation.annotation.Observed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/*
+  Bulk export as a merge join. Employees and compensations are read through two cursors, both
+  sorted by employeeId, and advanced together, so each collection is read once and only the
+  current row of each is in memory. Manager, depth and subtree size come from the org graph,
+  which is already resident. Output goes through a fixed-size buffer and reaches the client in
+  chunks as it fills.
+
+  The join relies on Mongo's string order matching String.compareTo, which holds for the ASCII
+  ids this service assigns.
+ */
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ExportServiceImpl.class);
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private static final String[] COLUMNS = {"employeeId", "firstName", "lastName", "position", "department",
+            "managerId", "depth", "subtreeSize", "salary", "effectiveDate"};
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private OrgGraph orgGraph;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    @Observed(name = "challenge.export.service", contextualName = "export-employees",
+            lowCardinalityKeyValues = {"method", "exportEmployees"})
+    public void exportEmployees(Format format, OutputStream out) throws IOException {
+        OrgGraph.Snapshot graph = orgGraph.snapshot();
+
+        Query employeeQuery = new Query().with(Sort.by("employeeId"));
+        employeeQuery.fields().exclude("directReports");
+        Query compensationQuery = new Query().with(Sort.by("employee.employeeId"));
+        compensationQuery.fields().include("employee.employeeId").include("salary").include("effectiveDate");
+
+        long rows = 0;
+        try (Stream<Employee> employees = mongoTemplate.stream(employeeQuery, Employee.class);
+             Stream<Compensation> compensations = mongoTemplate.stream(compensationQuery, Compensation.class);
+             RowWriter writer = format == Format.CSV
+                     ? new CsvRowWriter(new BufferedOutputStream(out, BUFFER_BYTES))
+                     : new NdjsonRowWriter(objectMapper.getFactory().createGenerator(
+                             new BufferedOutputStream(out, BUFFER_BYTES), JsonEncoding.UTF8))) {
+
+            Iterator<Compensation> compensationCursor = compensations.iterator();
+            Compensation compensation = next(compensationCursor);
+
+            for (Iterator<Employee> cursor = employees.iterator(); cursor.hasNext(); ) {
+                Employee employee = cursor.next();
+                String employeeId = employee.getEmployeeId();
+                if (employeeId == null) continue;
+
+                while (compensation != null && employeeIdOf(compensation).compareTo(employeeId) < 0) {
+                    compensation = next(compensationCursor);
+                }
+                Compensation match = compensation != null && employeeIdOf(compensation).equals(employeeId)
+                        ? compensation : null;
+
+                writer.write(employee, graph.placement(employeeId), match);
+                rows++;
+            }
+        }
+        LOG.atDebug().addKeyValue("rows", rows).addKeyValue("format", format).log("Exported employees");
+    }
+
+    // Skips compensations whose embedded employee has no id, which could never join
+    private static Compensation next(Iterator<Compensation> cursor) {
+        while (cursor.hasNext()) {
+            Compensation compensation = cursor.next();
+            if (compensation.getEmployee() != null && compensation.getEmployee().getEmployeeId() != null) {
+                return compensation;
+            }
+        }
+        return null;
+    }
+
+    private static String employeeIdOf(Compensation compensation) {
+        return compensation.getEmployee().getEmployeeId();
+    }
+
+    private interface RowWriter extends Closeable {
+        void write(Employee employee, OrgGraph.Placement placement, Compensation compensation) throws IOException;
+    }
+
+    // One JSON object per line
+    private static final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(JsonGenerator generator) {
+            this.generator = generator;
+        }
+
+        @Override
+        public void write(Employee employee, OrgGraph.Placement placement, Compensation compensation) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("employeeId", employee.getEmployeeId());
+            generator.writeStringField("firstName", employee.getFirstName());
+            generator.writeStringField("lastName", employee.getLastName());
+            generator.writeStringField("position", employee.getPosition());
+            generator.writeStringField("department", employee.getDepartment());
+            generator.writeStringField("managerId", placement == null ? null : placement.getManagerId());
+            if (placement == null) {
+                generator.writeNullField("depth");
+                generator.writeNullField("subtreeSize");
+            } else {
+                generator.writeNumberField("depth", placement.getDepth());
+                generator.writeNumberField("subtreeSize", placement.getSubtreeSize());
+            }
+            if (compensation == null) {
+                generator.writeNullField("salary");
+                generator.writeNullField("effectiveDate");
+            } else {
+                generator.writeNumberField("salary", compensation.getSalary());
+                generator.writeStringField("effectiveDate", compensation.getEffectiveDate() == null
+                        ? null : compensation.getEffectiveDate().toString());
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    // RFC 4180: a header line, CRLF line ends, and quoting only for values that need it
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream out) throws IOException {
+            this.writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            for (int i = 0; i < COLUMNS.length; i++) {
+                if (i > 0) writer.write(',');
+                writer.write(COLUMNS[i]);
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(Employee employee, OrgGraph.Placement placement, Compensation compensation) throws IOException {
+            cell(employee.getEmployeeId(), false);
+            cell(employee.getFirstName(), true);
+            cell(employee.getLastName(), true);
+            cell(employee.getPosition(), true);
+            cell(employee.getDepartment(), true);
+            cell(placement == null ? null : placement.getManagerId(), true);
+            cell(placement == null ? null : Integer.toString(placement.getDepth()), true);
+            cell(placement == null ? null : Integer.toString(placement.getSubtreeSize()), true);
+            cell(compensation == null ? null : Double.toString(compensation.getSalary()), true);
+            cell(compensation == null || compensation.getEffectiveDate() == null
+                    ? null : compensation.getEffectiveDate().toString(), true);
+            writer.write("\r\n");
+        }
+
+        private void cell(String value, boolean separator) throws IOException {
+            if (separator) {
+                writer.write(',');
+            }
+            if (value == null) {
+                return;
+            }
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+            }
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.mindex.challenge.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+// Default OrgStorage: one Java array per column
+final class HeapOrgStorage implements OrgStorage {
+
+    private String[] ids;
+    private String[] firstNames;
+    private String[] lastNames;
+    private int[] positions;
+    private int[] departments;
+    private long[] versions;
+    private int[] offsets;
+    private int[] edges = new int[0];
+
+    // Open-addressed id -> row + 1 table with linear probing; 0 marks an empty slot
+    private int[] slots;
+    private int indexed;
+
+    HeapOrgStorage(int capacity) {
+        ids = new String[capacity];
+        firstNames = new String[capacity];
+        lastNames = new String[capacity];
+        positions = new int[capacity];
+        departments = new int[capacity];
+        versions = new long[capacity];
+        offsets = new int[capacity + 1];
+        slots = new int[OrgStorage.tableSizeFor(capacity)];
+    }
+
+    @Override
+    public int capacity() {
+        return ids.length;
+    }
+
+    @Override
+    public void growRows(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        firstNames = Arrays.copyOf(firstNames, capacity);
+        lastNames = Arrays.copyOf(lastNames, capacity);
+        positions = Arrays.copyOf(positions, capacity);
+        departments = Arrays.copyOf(departments, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+        offsets = Arrays.copyOf(offsets, capacity + 1);
+    }
+
+    @Override
+    public int find(String employeeId) {
+        int mask = slots.length - 1;
+        for (int i = OrgStorage.spread(employeeId.hashCode()) & mask; slots[i] != 0; i = (i + 1) & mask) {
+            int row = slots[i] - 1;
+            if (ids[row].equals(employeeId)) return row;
+        }
+        return -1;
+    }
+
+    @Override
+    public void index(int row, String employeeId) {
+        ids[row] = employeeId;
+        if (++indexed * 2 > slots.length) {
+            slots = new int[slots.length * 2];
+            for (int i = 0; i < indexed; i++) {
+                insertSlot(i);
+            }
+        } else {
+            insertSlot(row);
+        }
+    }
+
+    private void insertSlot(int row) {
+        int mask = slots.length - 1;
+        int i = OrgStorage.spread(ids[row].hashCode()) & mask;
+        while (slots[i] != 0) i = (i + 1) & mask;
+        slots[i] = row + 1;
+    }
+
+    @Override
+    public int employeeIdHash(int row) {
+        return ids[row].hashCode();
+    }
+
+    @Override
+    public String text(int row, Text text) {
+        switch (text) {
+            case EMPLOYEE_ID: return ids[row];
+            case FIRST_NAME: return firstNames[row];
+            default: return lastNames[row];
+        }
+    }
+
+    @Override
+    public void setText(int row, Text text, String value) {
+        switch (text) {
+            case EMPLOYEE_ID: ids[row] = value; break;
+            case FIRST_NAME: firstNames[row] = value; break;
+            default: lastNames[row] = value;
+        }
+    }
+
+    @Override
+    public void writeText(int row, Text text, JsonGenerator generator) throws IOException {
+        String value = text(row, text);
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(value);
+        }
+    }
+
+    @Override
+    public int position(int row) {
+        return positions[row];
+    }
+
+    @Override
+    public int department(int row) {
+        return departments[row];
+    }
+
+    @Override
+    public long version(int row) {
+        return versions[row];
+    }
+
+    @Override
+    public void setAttributes(int row, int position, int department, long version) {
+        positions[row] = position;
+        departments[row] = department;
+        versions[row] = version;
+    }
+
+    @Override
+    public int offset(int index) {
+        return offsets[index];
+    }
+
+    @Override
+    public void setOffset(int index, int value) {
+        offsets[index] = value;
+    }
+
+    @Override
+    public int edge(int index) {
+        return edges[index];
+    }
+
+    @Override
+    public void setEdges(int[] edges, int count) {
+        this.edges = Arrays.copyOf(edges, count);
+    }
+}
@@ -0,0 +1,266 @@
+package com.mindex.challenge.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+  OrgStorage kept outside the Java heap, in direct buffers or, when a directory is configured,
+  in memory-mapped files (unlinked right after mapping, so nothing is left behind on exit).
+
+  Each row is a fixed 48-byte record:
+
+    0  int  hash of employeeId        16 long version
+    4  int  position code             24 long employeeId address
+    8  int  department code           32 long firstName address
+    12 int  (padding)                 40 long lastName address
+
+  Strings are appended to an arena of 16 MB segments as [int length][UTF-8 bytes]; an
+  address is (segment << 32 | offset) and -1 means null. Rewriting a name appends a new copy;
+  the old bytes are reclaimed when the snapshot is rebuilt. The buffers themselves are freed
+  by their cleaners once the snapshot is unreachable.
+ */
+final class OffHeapOrgStorage implements OrgStorage {
+
+    private static final int ROW_BYTES = 48;
+    private static final int HASH = 0;
+    private static final int POSITION = 4;
+    private static final int DEPARTMENT = 8;
+    private static final int VERSION = 16;
+    private static final int TEXT = 24;
+    private static final int SEGMENT_BYTES = 16 << 20;
+    private static final long NULL_ADDRESS = -1L;
+
+    // Reused per request thread when copying a name out to a JsonGenerator
+    private static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(() -> new byte[256]);
+
+    private final Path directory;
+    private int capacity;
+    private ByteBuffer rows;
+    private ByteBuffer offsets;
+    private ByteBuffer edges;
+    private ByteBuffer slots;
+    private int tableSize;
+    private int indexed;
+
+    private final List<ByteBuffer> segments = new ArrayList<>();
+    private int segmentPosition = SEGMENT_BYTES;
+
+    OffHeapOrgStorage(int capacity, Path directory) {
+        this.directory = directory;
+        this.capacity = capacity;
+        this.rows = allocate((long) capacity * ROW_BYTES);
+        this.offsets = allocate((capacity + 1L) * Integer.BYTES);
+        this.edges = allocate(Integer.BYTES);
+        this.tableSize = OrgStorage.tableSizeFor(capacity);
+        this.slots = allocate((long) tableSize * Integer.BYTES);
+    }
+
+    private ByteBuffer allocate(long bytes) {
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Off-heap org graph segment too large: " + bytes + " bytes");
+        }
+        if (directory == null) {
+            return ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder());
+        }
+
+        try {
+            Files.createDirectories(directory);
+            Path file = Files.createTempFile(directory, "org-graph-", ".seg");
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+                return mapped.order(ByteOrder.nativeOrder());
+            } finally {
+                // The mapping stays valid after the file is unlinked
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not map org graph segment in " + directory, e);
+        }
+    }
+
+    private ByteBuffer copyOf(ByteBuffer source, long bytes, int used) {
+        ByteBuffer copy = allocate(bytes);
+        copy.put(0, source, 0, used);
+        return copy;
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public void growRows(int capacity) {
+        rows = copyOf(rows, (long) capacity * ROW_BYTES, this.capacity * ROW_BYTES);
+        offsets = copyOf(offsets, (capacity + 1L) * Integer.BYTES, (this.capacity + 1) * Integer.BYTES);
+        this.capacity = capacity;
+    }
+
+    @Override
+    public int find(String employeeId) {
+        int hash = employeeId.hashCode();
+        byte[] utf8 = null;
+        int mask = tableSize - 1;
+        for (int i = OrgStorage.spread(hash) & mask; ; i = (i + 1) & mask) {
+            int row = slots.getInt(i * Integer.BYTES) - 1;
+            if (row < 0) return -1;
+            if (rows.getInt(row * ROW_BYTES + HASH) != hash) continue;
+
+            if (utf8 == null) utf8 = employeeId.getBytes(StandardCharsets.UTF_8);
+            if (textEquals(row, Text.EMPLOYEE_ID, utf8)) return row;
+        }
+    }
+
+    @Override
+    public void index(int row, String employeeId) {
+        rows.putInt(row * ROW_BYTES + HASH, employeeId.hashCode());
+        setText(row, Text.EMPLOYEE_ID, employeeId);
+        if (++indexed * 2 > tableSize) {
+            tableSize *= 2;
+            slots = allocate((long) tableSize * Integer.BYTES);
+            for (int i = 0; i < indexed; i++) {
+                insertSlot(i);
+            }
+        } else {
+            insertSlot(row);
+        }
+    }
+
+    private void insertSlot(int row) {
+        int mask = tableSize - 1;
+        int i = OrgStorage.spread(employeeIdHash(row)) & mask;
+        while (slots.getInt(i * Integer.BYTES) != 0) i = (i + 1) & mask;
+        slots.putInt(i * Integer.BYTES, row + 1);
+    }
+
+    @Override
+    public int employeeIdHash(int row) {
+        return rows.getInt(row * ROW_BYTES + HASH);
+    }
+
+    @Override
+    public String text(int row, Text text) {
+        long address = address(row, text);
+        if (address == NULL_ADDRESS) {
+            return null;
+        }
+        ByteBuffer segment = segments.get((int) (address >>> 32));
+        int offset = (int) address;
+        byte[] bytes = new byte[segment.getInt(offset)];
+        segment.get(offset + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void setText(int row, Text text, String value) {
+        long address = NULL_ADDRESS;
+        if (value != null) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            int needed = Integer.BYTES + bytes.length;
+            if (segmentPosition + needed > SEGMENT_BYTES || segments.isEmpty()) {
+                segments.add(allocate(Math.max(SEGMENT_BYTES, needed)));
+                segmentPosition = 0;
+            }
+            ByteBuffer segment = segments.get(segments.size() - 1);
+            segment.putInt(segmentPosition, bytes.length);
+            segment.put(segmentPosition + Integer.BYTES, bytes);
+            address = ((long) (segments.size() - 1) << 32) | segmentPosition;
+            segmentPosition += needed;
+        }
+        rows.putLong(row * ROW_BYTES + TEXT + text.ordinal() * Long.BYTES, address);
+    }
+
+    @Override
+    public void writeText(int row, Text text, JsonGenerator generator) throws IOException {
+        long address = address(row, text);
+        if (address == NULL_ADDRESS) {
+            generator.writeNull();
+            return;
+        }
+        ByteBuffer segment = segments.get((int) (address >>> 32));
+        int offset = (int) address;
+        int length = segment.getInt(offset);
+
+        byte[] scratch = SCRATCH.get();
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+            SCRATCH.set(scratch);
+        }
+        segment.get(offset + Integer.BYTES, scratch, 0, length);
+        generator.writeUTF8String(scratch, 0, length);
+    }
+
+    private boolean textEquals(int row, Text text, byte[] utf8) {
+        long address = address(row, text);
+        if (address == NULL_ADDRESS) {
+            return false;
+        }
+        ByteBuffer segment = segments.get((int) (address >>> 32));
+        int offset = (int) address;
+        if (segment.getInt(offset) != utf8.length) {
+            return false;
+        }
+        return segment.slice(offset + Integer.BYTES, utf8.length).equals(ByteBuffer.wrap(utf8));
+    }
+
+    private long address(int row, Text text) {
+        return rows.getLong(row * ROW_BYTES + TEXT + text.ordinal() * Long.BYTES);
+    }
+
+    @Override
+    public int position(int row) {
+        return rows.getInt(row * ROW_BYTES + POSITION);
+    }
+
+    @Override
+    public int department(int row) {
+        return rows.getInt(row * ROW_BYTES + DEPARTMENT);
+    }
+
+    @Override
+    public long version(int row) {
+        return rows.getLong(row * ROW_BYTES + VERSION);
+    }
+
+    @Override
+    public void setAttributes(int row, int position, int department, long version) {
+        int base = row * ROW_BYTES;
+        rows.putInt(base + POSITION, position);
+        rows.putInt(base + DEPARTMENT, department);
+        rows.putLong(base + VERSION, version);
+    }
+
+    @Override
+    public int offset(int index) {
+        return offsets.getInt(index * Integer.BYTES);
+    }
+
+    @Override
+    public void setOffset(int index, int value) {
+        offsets.putInt(index * Integer.BYTES, value);
+    }
+
+    @Override
+    public int edge(int index) {
+        return edges.getInt(index * Integer.BYTES);
+    }
+
+    @Override
+    public void setEdges(int[] built, int count) {
+        edges = allocate(Math.max(1, count) * (long) Integer.BYTES);
+        for (int i = 0; i < count; i++) {
+            edges.putInt(i * Integer.BYTES, built[i]);
+        }
+    }
+}
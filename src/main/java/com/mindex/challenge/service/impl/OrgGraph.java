@@ -0,0 +1,645 @@
+package com.mindex.challenge.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.mindex.challenge.dao.EmployeeRepository;
+import com.mindex.challenge.data.Employee;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/*
+  In-memory view of the organization, loaded once from the repository and shared by every
+  read that needs the hierarchy. Writes going through EmployeeServiceImpl are applied to it:
+  a write that leaves reporting lines alone swaps the one node in place, while a write that
+  changes who reports to whom drops the snapshot and the next reader rebuilds it.
+
+  Besides the columnar employee data, each snapshot memoizes an aggregate version per subtree
+  (a hash of every (employeeId, version) pair reachable from the root). A change to any
+  descendant, or to who reports to whom, changes the aggregate, which is what the
+  reportingStructure ETag is derived from.
+ */
+@Component
+public class OrgGraph {
+
+    private static final Logger log = LoggerFactory.getLogger(OrgGraph.class);
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Off-heap keeps the columns in direct buffers, or in mapped files under the directory when one is set
+    @Value("${challenge.org-graph.off-heap.enabled:false}")
+    private boolean offHeap;
+
+    @Value("${challenge.org-graph.off-heap.directory:}")
+    private String offHeapDirectory;
+
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    // Hit/miss counts behind the challenge.cache.requests hit ratio
+    private final LongAdder snapshotHits = new LongAdder();
+    private final LongAdder snapshotMisses = new LongAdder();
+    private final LongAdder subtreeVersionHits = new LongAdder();
+    private final LongAdder subtreeVersionMisses = new LongAdder();
+
+    @PostConstruct
+    public void registerMetrics() {
+        cacheCounter("orgGraph", "hit", snapshotHits);
+        cacheCounter("orgGraph", "miss", snapshotMisses);
+        cacheCounter("subtreeVersion", "hit", subtreeVersionHits);
+        cacheCounter("subtreeVersion", "miss", subtreeVersionMisses);
+        Gauge.builder("challenge.org-graph.size", this, graph -> {
+                    Snapshot current = graph.snapshot;
+                    return current == null ? 0 : current.size();
+                })
+                .description("Employees held by the loaded org graph snapshot")
+                .register(meterRegistry);
+    }
+
+    private void cacheCounter(String cache, String result, LongAdder adder) {
+        FunctionCounter.builder("challenge.cache.requests", adder, LongAdder::sum)
+                .tag("cache", cache)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            snapshotHits.increment();
+            return current;
+        }
+
+        synchronized (this) {
+            if (snapshot == null) {
+                snapshotMisses.increment();
+                long loadedGeneration = generation.get();
+                Snapshot loaded = new Snapshot(employeeRepository.findAll(), storageFactory(),
+                        subtreeVersionHits, subtreeVersionMisses);
+                log.debug("Loaded org graph with {} employees", loaded.size());
+
+                // A write that landed while we were loading makes this snapshot stale already
+                if (generation.get() != loadedGeneration) {
+                    return loaded;
+                }
+                snapshot = loaded;
+            } else {
+                snapshotHits.increment();
+            }
+            return snapshot;
+        }
+    }
+
+    private IntFunction<OrgStorage> storageFactory() {
+        if (!offHeap) {
+            return HeapOrgStorage::new;
+        }
+        Path directory = offHeapDirectory.isBlank() ? null : Path.of(offHeapDirectory);
+        return capacity -> new OffHeapOrgStorage(capacity, directory);
+    }
+
+    // Bumped by every write the graph hears about; equal values mean no write landed in between
+    public long generation() {
+        return generation.get();
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    // Returns true if the write changed the hierarchy and the snapshot had to be dropped
+    public boolean apply(Employee written) {
+        generation.incrementAndGet();
+        Snapshot current = snapshot;
+        if (current == null) {
+            return false;
+        }
+
+        if (!current.apply(written)) {
+            snapshot = null;
+            return true;
+        }
+        return false;
+    }
+
+    /*
+      Columnar, int-indexed copy of the org. Every employeeId is interned to a dense row number;
+      attributes live in one column per field (position and department dictionary-encoded), and
+      reporting lines are CSR arrays: the children of row i are edges[offsets[i] .. offsets[i + 1]).
+      Edges to unknown ids and self-edges are dropped at build time, since both traversals skip them.
+      The columns themselves sit in an OrgStorage, on the heap or off it.
+
+      Row-indexed accessors are unlocked and must be called inside read(); the id-keyed methods
+      take the read lock themselves. Writes are attribute-only updates in place, or appends of
+      employees without reports, under the write lock.
+     */
+    public static final class Snapshot {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private final OrgStorage storage;
+        private int size;
+
+        private final Dictionary positionDictionary = new Dictionary();
+        private final Dictionary departmentDictionary = new Dictionary();
+
+        private final Map<String, Long> subtreeVersions = new ConcurrentHashMap<>();
+        // Filled on first use; rows appended later are leaves and fall outside them
+        private volatile int[] subtreeSizes;
+        private volatile Hierarchy hierarchy;
+        private final LongAdder memoHits;
+        private final LongAdder memoMisses;
+
+        Snapshot(List<Employee> allEmployees) {
+            this(allEmployees, HeapOrgStorage::new, new LongAdder(), new LongAdder());
+        }
+
+        Snapshot(List<Employee> allEmployees, IntFunction<OrgStorage> storageFactory,
+                 LongAdder memoHits, LongAdder memoMisses) {
+            this.memoHits = memoHits;
+            this.memoMisses = memoMisses;
+
+            int capacity = Math.max(16, allEmployees.size());
+            storage = storageFactory.apply(capacity);
+
+            // Intern every id first so edges resolve regardless of document order; a repeated id keeps the last copy
+            Employee[] sources = new Employee[capacity];
+            for (Employee employee : allEmployees) {
+                if (employee.getEmployeeId() == null) continue;
+                int row = intern(employee.getEmployeeId());
+                setAttributes(row, employee);
+                sources[row] = employee;
+            }
+
+            int[] built = new int[Math.max(16, size)];
+            int edgeCount = 0;
+            for (int row = 0; row < size; row++) {
+                storage.setOffset(row, edgeCount);
+                List<Employee> reports = sources[row].getDirectReports();
+                if (reports == null) continue;
+                for (Employee report : reports) {
+                    int child = report.getEmployeeId() == null ? -1 : storage.find(report.getEmployeeId());
+                    if (child < 0 || child == row) continue;
+                    if (edgeCount == built.length) {
+                        built = Arrays.copyOf(built, built.length * 2);
+                    }
+                    built[edgeCount++] = child;
+                }
+            }
+            storage.setOffset(size, edgeCount);
+            storage.setEdges(built, edgeCount);
+        }
+
+        public <T> T read(Supplier<T> reader) {
+            lock.readLock().lock();
+            try {
+                return reader.get();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        // Returns false if the write cannot be applied in place and the snapshot must be rebuilt
+        boolean apply(Employee written) {
+            lock.writeLock().lock();
+            try {
+                int row = storage.find(written.getEmployeeId());
+                if (row < 0) {
+                    // A brand-new employee has no manager yet; it only fits if it has no reports of its own
+                    if (reportCount(written) > 0) {
+                        return false;
+                    }
+                    row = intern(written.getEmployeeId());
+                    storage.setOffset(row + 1, storage.offset(row));
+                } else if (versionOf(written) < storage.version(row)) {
+                    // Older than what is held (a reordered or replayed event); already superseded
+                    return true;
+                } else if (!sameReports(row, written)) {
+                    return false;
+                }
+
+                // Attribute-only change: same edges, so only the memoized aggregate versions go stale
+                setAttributes(row, written);
+                subtreeVersions.clear();
+                return true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private boolean sameReports(int row, Employee written) {
+            int edge = storage.offset(row);
+            int end = storage.offset(row + 1);
+            if (written.getDirectReports() != null) {
+                for (Employee report : written.getDirectReports()) {
+                    int child = report.getEmployeeId() == null ? -1 : storage.find(report.getEmployeeId());
+                    if (child < 0 || child == row) continue;
+                    if (edge == end || storage.edge(edge++) != child) return false;
+                }
+            }
+            return edge == end;
+        }
+
+        private static int reportCount(Employee employee) {
+            return employee.getDirectReports() == null ? 0 : employee.getDirectReports().size();
+        }
+
+        private void setAttributes(int row, Employee employee) {
+            storage.setText(row, OrgStorage.Text.FIRST_NAME, employee.getFirstName());
+            storage.setText(row, OrgStorage.Text.LAST_NAME, employee.getLastName());
+            storage.setAttributes(row,
+                    positionDictionary.encode(employee.getPosition()),
+                    departmentDictionary.encode(employee.getDepartment()),
+                    versionOf(employee));
+        }
+
+        private int intern(String employeeId) {
+            int row = storage.find(employeeId);
+            if (row >= 0) {
+                return row;
+            }
+
+            row = size++;
+            if (size > storage.capacity()) {
+                storage.growRows(storage.capacity() * 2);
+            }
+            storage.index(row, employeeId);
+            return row;
+        }
+
+        // Id-keyed lookups; each takes the read lock
+
+        public int indexOf(String employeeId) {
+            return read(() -> storage.find(employeeId));
+        }
+
+        public boolean contains(String employeeId) {
+            return indexOf(employeeId) >= 0;
+        }
+
+        // Materializes a detached Employee shaped like the stored document (reports as id-only stubs)
+        public Employee get(String employeeId) {
+            return read(() -> {
+                int row = storage.find(employeeId);
+                return row < 0 ? null : toEmployee(row);
+            });
+        }
+
+        public long version(String employeeId) {
+            return read(() -> {
+                int row = storage.find(employeeId);
+                if (row < 0) {
+                    throw new RuntimeException("Invalid employeeId: " + employeeId);
+                }
+                return storage.version(row);
+            });
+        }
+
+        public int size() {
+            return size;
+        }
+
+        // Row-indexed accessors; callers hold the read lock
+
+        public String employeeId(int row) {
+            return storage.text(row, OrgStorage.Text.EMPLOYEE_ID);
+        }
+
+        public String firstName(int row) {
+            return storage.text(row, OrgStorage.Text.FIRST_NAME);
+        }
+
+        public String lastName(int row) {
+            return storage.text(row, OrgStorage.Text.LAST_NAME);
+        }
+
+        public String position(int row) {
+            return positionDictionary.decode(storage.position(row));
+        }
+
+        public String department(int row) {
+            return departmentDictionary.decode(storage.department(row));
+        }
+
+        public long version(int row) {
+            return storage.version(row);
+        }
+
+        public int firstEdge(int row) {
+            return storage.offset(row);
+        }
+
+        public int endEdge(int row) {
+            return storage.offset(row + 1);
+        }
+
+        public int edgeTarget(int edge) {
+            return storage.edge(edge);
+        }
+
+        // Flyweight write of a text column straight from storage, without building a String off-heap
+        void writeText(int row, OrgStorage.Text text, JsonGenerator generator) throws IOException {
+            storage.writeText(row, text, generator);
+        }
+
+        public Employee toEmployee(int row) {
+            Employee employee = new Employee();
+            employee.setEmployeeId(employeeId(row));
+            employee.setFirstName(firstName(row));
+            employee.setLastName(lastName(row));
+            employee.setPosition(position(row));
+            employee.setDepartment(department(row));
+            employee.setVersion(storage.version(row));
+
+            int end = endEdge(row);
+            if (end > firstEdge(row)) {
+                List<Employee> reports = new ArrayList<>(end - firstEdge(row));
+                for (int edge = firstEdge(row); edge < end; edge++) {
+                    Employee stub = new Employee();
+                    stub.setEmployeeId(employeeId(storage.edge(edge)));
+                    reports.add(stub);
+                }
+                employee.setDirectReports(reports);
+            }
+            return employee;
+        }
+
+        /*
+          Number of employees in the subtree rooted at employeeId, itself included, or 0 if it is
+          unknown. All sizes are computed together in one O(rows + edges) post-order pass the first
+          time they are asked for, and stay valid for the snapshot's lifetime because in-place
+          writes never change edges. An employee reachable along two paths is counted on each one,
+          so for a non-tree this is an upper bound, capped at size().
+         */
+        public int subtreeSize(String employeeId) {
+            return read(() -> {
+                int row = storage.find(employeeId);
+                if (row < 0) {
+                    return 0;
+                }
+                int[] sizes = subtreeSizes();
+                return row < sizes.length ? sizes[row] : 1;
+            });
+        }
+
+        private int[] subtreeSizes() {
+            int[] sizes = subtreeSizes;
+            if (sizes == null) {
+                sizes = computeSubtreeSizes();
+                subtreeSizes = sizes;
+            }
+            return sizes;
+        }
+
+        /*
+          Where an employee sits in the org: its manager, how many levels below a top-level
+          employee it is, and its subtree size. Null if the id is unknown.
+         */
+        public Placement placement(String employeeId) {
+            return read(() -> {
+                int row = storage.find(employeeId);
+                if (row < 0) {
+                    return null;
+                }
+                Hierarchy levels = hierarchy();
+                int[] sizes = subtreeSizes();
+                if (row >= levels.managers.length) {
+                    return new Placement(null, 0, 1);
+                }
+                int manager = levels.managers[row];
+                return new Placement(manager < 0 ? null : employeeId(manager), levels.depths[row],
+                        row < sizes.length ? sizes[row] : 1);
+            });
+        }
+
+        private Hierarchy hierarchy() {
+            Hierarchy levels = hierarchy;
+            if (levels == null) {
+                levels = computeHierarchy();
+                hierarchy = levels;
+            }
+            return levels;
+        }
+
+        /*
+          Breadth-first from every employee nobody reports to, so each employee's manager is the
+          one on its shortest path from the top and depth is that path's length. Employees only
+          reachable through a cycle are then walked from the lowest row of each cycle.
+         */
+        private Hierarchy computeHierarchy() {
+            int rows = size;
+            int[] managers = new int[rows];
+            int[] depths = new int[rows];
+            boolean[] reported = new boolean[rows];
+            for (int edge = 0, end = storage.offset(rows); edge < end; edge++) {
+                reported[storage.edge(edge)] = true;
+            }
+
+            Arrays.fill(managers, -1);
+            BitSet visited = new BitSet(rows);
+            int[] queue = new int[rows];
+            int tail = 0;
+            for (int row = 0; row < rows; row++) {
+                if (!reported[row]) {
+                    visited.set(row);
+                    queue[tail++] = row;
+                }
+            }
+
+            int head = 0;
+            int next = 0;
+            while (true) {
+                while (head < tail) {
+                    int current = queue[head++];
+                    for (int edge = storage.offset(current); edge < storage.offset(current + 1); edge++) {
+                        int child = storage.edge(edge);
+                        if (visited.get(child)) continue;
+                        visited.set(child);
+                        managers[child] = current;
+                        depths[child] = depths[current] + 1;
+                        queue[tail++] = child;
+                    }
+                }
+                next = visited.nextClearBit(next);
+                if (next >= rows) {
+                    return new Hierarchy(managers, depths);
+                }
+                visited.set(next);
+                queue[tail++] = next;
+            }
+        }
+
+        // A child still on the stack closes a cycle and contributes nothing
+        private int[] computeSubtreeSizes() {
+            int rows = size;
+            int[] sizes = new int[rows];
+            int[] cursor = new int[rows];
+            byte[] state = new byte[rows];
+            int[] stack = new int[16];
+
+            for (int start = 0; start < rows; start++) {
+                if (state[start] != 0) continue;
+                int top = 0;
+                stack[top++] = start;
+                state[start] = 1;
+                cursor[start] = storage.offset(start);
+
+                while (top > 0) {
+                    int current = stack[top - 1];
+                    if (cursor[current] < storage.offset(current + 1)) {
+                        int child = storage.edge(cursor[current]++);
+                        if (state[child] != 0) continue;
+                        state[child] = 1;
+                        cursor[child] = storage.offset(child);
+                        if (top == stack.length) {
+                            stack = Arrays.copyOf(stack, top * 2);
+                        }
+                        stack[top++] = child;
+                        continue;
+                    }
+
+                    top--;
+                    long total = 1;
+                    for (int edge = storage.offset(current); edge < storage.offset(current + 1); edge++) {
+                        total += sizes[storage.edge(edge)];
+                    }
+                    sizes[current] = (int) Math.min(total, rows);
+                    state[current] = 2;
+                }
+            }
+            return sizes;
+        }
+
+        public long subtreeVersion(String employeeId) {
+            Long memoized = subtreeVersions.get(employeeId);
+            if (memoized != null) {
+                memoHits.increment();
+                return memoized;
+            }
+            memoMisses.increment();
+            return read(() -> subtreeVersions.computeIfAbsent(employeeId, this::computeSubtreeVersion));
+        }
+
+        // Iterative DFS in directReports order so the hash is stable for an unchanged subtree
+        private long computeSubtreeVersion(String rootId) {
+            int root = storage.find(rootId);
+            if (root < 0) {
+                throw new RuntimeException("Invalid employeeId: " + rootId);
+            }
+
+            long hash = 1125899906842597L;
+            BitSet visited = new BitSet(size);
+            int[] stack = new int[16];
+            int top = 0;
+            stack[top++] = root;
+            visited.set(root);
+
+            while (top > 0) {
+                int current = stack[--top];
+                hash = mix(hash, storage.employeeIdHash(current));
+                hash = mix(hash, storage.version(current));
+
+                for (int edge = storage.offset(current + 1) - 1; edge >= storage.offset(current); edge--) {
+                    int child = storage.edge(edge);
+                    if (visited.get(child)) continue;
+                    visited.set(child);
+                    if (top == stack.length) {
+                        stack = Arrays.copyOf(stack, top * 2);
+                    }
+                    stack[top++] = child;
+                }
+            }
+
+            return hash;
+        }
+
+        private static long mix(long hash, long value) {
+            hash ^= value;
+            hash *= 0x9E3779B97F4A7C15L;
+            return hash ^ (hash >>> 29);
+        }
+    }
+
+    public static final class Placement {
+        private final String managerId;
+        private final int depth;
+        private final int subtreeSize;
+
+        Placement(String managerId, int depth, int subtreeSize) {
+            this.managerId = managerId;
+            this.depth = depth;
+            this.subtreeSize = subtreeSize;
+        }
+
+        public String getManagerId() {
+            return managerId;
+        }
+
+        public int getDepth() {
+            return depth;
+        }
+
+        public int getSubtreeSize() {
+            return subtreeSize;
+        }
+    }
+
+    private static final class Hierarchy {
+        final int[] managers;
+        final int[] depths;
+
+        Hierarchy(int[] managers, int[] depths) {
+            this.managers = managers;
+            this.depths = depths;
+        }
+    }
+
+    // Low-cardinality strings stored once and referenced by code; -1 encodes null
+    private static final class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private String[] values = new String[16];
+
+        int encode(String value) {
+            if (value == null) {
+                return -1;
+            }
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = codes.size();
+                if (code == values.length) {
+                    values = Arrays.copyOf(values, code * 2);
+                }
+                values[code] = value;
+                codes.put(value, code);
+            }
+            return code;
+        }
+
+        String decode(int code) {
+            return code < 0 ? null : values[code];
+        }
+    }
+
+    static long versionOf(Employee employee) {
+        return employee.getVersion() == null ? 0L : employee.getVersion();
+    }
+}
@@ -0,0 +1,130 @@
+package com.mindex.challenge.service.impl;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/*
+  Flyweight JSON for the employee and reportingStructure reads when the org graph is off-heap:
+  fields are copied from the snapshot's storage straight into a JsonGenerator, so no Employee,
+  EmployeeDTO or ReportingStructure is built. The output is byte-for-byte what Jackson writes
+  for EmployeeDTO (directReports null) and ReportingStructure.
+
+  Rendering happens under the snapshot's read lock into a local buffer that is then copied to
+  the response, so a slow client never holds the lock that writers wait on.
+ */
+@Component
+@ConditionalOnProperty(name = "challenge.org-graph.off-heap.enabled", havingValue = "true")
+public class OrgJsonWriter {
+
+    @Autowired
+    private OrgGraph orgGraph;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public void writeEmployee(String employeeId, OutputStream out) throws IOException {
+        render(employeeId, (graph, row, generator) -> {
+            generator.writeStartObject();
+            writeFields(graph, row, generator);
+            generator.writeNullField("directReports");
+            generator.writeEndObject();
+        }).writeTo(out);
+    }
+
+    public void writeReportingStructure(String employeeId, OutputStream out) throws IOException {
+        render(employeeId, (graph, row, generator) -> {
+            generator.writeStartObject();
+            generator.writeFieldName("employee");
+            writeTree(graph, row, generator);
+            generator.writeNumberField("numberOfReports", EmployeeServiceImpl.countReports(graph, row));
+            generator.writeEndObject();
+        }).writeTo(out);
+    }
+
+    private interface Body {
+        void write(OrgGraph.Snapshot graph, int row, JsonGenerator generator) throws IOException;
+    }
+
+    private ByteArrayOutputStream render(String employeeId, Body body) {
+        OrgGraph.Snapshot graph = orgGraph.snapshot();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(512);
+        graph.read(() -> {
+            int row = graph.indexOf(employeeId);
+            if (row < 0) {
+                throw new RuntimeException("Invalid employeeId: " + employeeId);
+            }
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(buffer, JsonEncoding.UTF8)) {
+                body.write(graph, row, generator);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return null;
+        });
+        return buffer;
+    }
+
+    private static void writeFields(OrgGraph.Snapshot graph, int row, JsonGenerator generator) throws IOException {
+        generator.writeFieldName("employeeId");
+        graph.writeText(row, OrgStorage.Text.EMPLOYEE_ID, generator);
+        generator.writeFieldName("firstName");
+        graph.writeText(row, OrgStorage.Text.FIRST_NAME, generator);
+        generator.writeFieldName("lastName");
+        graph.writeText(row, OrgStorage.Text.LAST_NAME, generator);
+        generator.writeStringField("position", graph.position(row));
+        generator.writeStringField("department", graph.department(row));
+    }
+
+    // Same depth-first, first-visit-wins walk as EmployeeServiceImpl.convertToDTO, emitting JSON as it goes
+    private static void writeTree(OrgGraph.Snapshot graph, int root, JsonGenerator generator) throws IOException {
+        BitSet visited = new BitSet(graph.size());
+        visited.set(root);
+
+        int[] nodes = new int[16];
+        int[] cursors = new int[16];
+        nodes[0] = root;
+        cursors[0] = graph.firstEdge(root);
+        int top = 1;
+        openNode(graph, root, generator);
+
+        while (top > 0) {
+            int frame = top - 1;
+            if (cursors[frame] == graph.endEdge(nodes[frame])) {
+                generator.writeEndArray();
+                generator.writeEndObject();
+                top--;
+                continue;
+            }
+
+            int child = graph.edgeTarget(cursors[frame]++);
+            if (visited.get(child)) continue;
+            visited.set(child);
+
+            if (top == nodes.length) {
+                nodes = Arrays.copyOf(nodes, top * 2);
+                cursors = Arrays.copyOf(cursors, top * 2);
+            }
+            nodes[top] = child;
+            cursors[top] = graph.firstEdge(child);
+            top++;
+            openNode(graph, child, generator);
+        }
+    }
+
+    private static void openNode(OrgGraph.Snapshot graph, int row, JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        writeFields(graph, row, generator);
+        generator.writeFieldName("directReports");
+        generator.writeStartArray();
+    }
+}
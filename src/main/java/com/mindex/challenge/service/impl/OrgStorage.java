@@ -0,0 +1,60 @@
+package com.mindex.challenge.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+
+/*
+  Row, edge and id-table storage behind OrgGraph.Snapshot. HeapOrgStorage keeps plain arrays;
+  OffHeapOrgStorage keeps the same layout in direct or memory-mapped buffers so that a large
+  org costs next to nothing on the Java heap. The snapshot serializes access (writes under
+  its write lock), so implementations are not thread-safe for writers.
+ */
+interface OrgStorage {
+
+    enum Text { EMPLOYEE_ID, FIRST_NAME, LAST_NAME }
+
+    int capacity();
+
+    void growRows(int capacity);
+
+    // Row holding employeeId, or -1
+    int find(String employeeId);
+
+    // Stores the id of a fresh row and adds it to the id table
+    void index(int row, String employeeId);
+
+    // Same value as employeeId(row).hashCode(), without materializing the String
+    int employeeIdHash(int row);
+
+    String text(int row, Text text);
+
+    void setText(int row, Text text, String value);
+
+    void writeText(int row, Text text, JsonGenerator generator) throws IOException;
+
+    int position(int row);
+
+    int department(int row);
+
+    long version(int row);
+
+    void setAttributes(int row, int position, int department, long version);
+
+    // CSR arrays: offsets has capacity + 1 entries, the children of row i are edge(offset(i) .. offset(i + 1))
+    int offset(int index);
+
+    void setOffset(int index, int value);
+
+    int edge(int index);
+
+    void setEdges(int[] edges, int count);
+
+    static int tableSizeFor(int entries) {
+        return Integer.highestOneBit(Math.max(16, entries) * 2 - 1) << 1;
+    }
+
+    static int spread(int hash) {
+        return (hash ^ (hash >>> 16)) * 0x9E3779B9;
+    }
+}
@@ -0,0 +1,84 @@
+package com.mindex.challenge.service.impl;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+  Per-key deduplication of concurrent work. The first caller for a key runs the call; callers
+  that arrive while it is running wait for and share its result (or its exception) instead of
+  repeating it. Nothing is kept once the call finishes, so this is not a cache: the key has to
+  identify the data version the result is valid for, or a caller could be handed a result that
+  was started before a write it has already seen.
+ */
+public final class SingleFlight<K, V> {
+
+    @FunctionalInterface
+    public interface Call<V, E extends Exception> {
+        V call() throws E;
+    }
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public <E extends Exception> V execute(K key, Call<V, E> call) throws E {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            coalesced.increment();
+            return SingleFlight.<V, E>await(running);
+        }
+
+        executed.increment();
+        try {
+            V value = call.call();
+            mine.complete(value);
+            return value;
+        } catch (Throwable t) {
+            mine.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    // True if a call for the key is running right now
+    public boolean isRunning(K key) {
+        return inFlight.containsKey(key);
+    }
+
+    // challenge.single-flight.requests{flight, result=executed|coalesced}
+    public void registerMetrics(MeterRegistry registry, String flight) {
+        FunctionCounter.builder("challenge.single-flight.requests", executed, LongAdder::sum)
+                .tag("flight", flight).tag("result", "executed").register(registry);
+        FunctionCounter.builder("challenge.single-flight.requests", coalesced, LongAdder::sum)
+                .tag("flight", flight).tag("result", "coalesced").register(registry);
+    }
+
+    public long executedCount() {
+        return executed.sum();
+    }
+
+    public long coalescedCount() {
+        return coalesced.sum();
+    }
+
+    // The leader's exception is rethrown as-is; it can only be E or unchecked
+    @SuppressWarnings("unchecked")
+    private static <V, E extends Exception> V await(CompletableFuture<V> running) throws E {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) throw runtime;
+            if (cause instanceof Error error) throw error;
+            throw (E) cause;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.mindex.challenge;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "challenge.warmup.enabled=true",
+        "challenge.warmup.requests=30"
+})
+public class StartupWarmUpTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private StartupWarmUp warmUp;
+
+    @Autowired
+    private ApplicationAvailability availability;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void testReadyOnlyAfterWarmUpHasRun() {
+        assertEquals(ReadinessState.ACCEPTING_TRAFFIC, availability.getReadinessState());
+        assertEquals(HttpStatus.OK,
+                restTemplate.getForEntity("http://localhost:" + port + "/actuator/health/readiness", String.class)
+                        .getStatusCode());
+
+        // Every synthetic request went through and was answered
+        assertEquals(30, meterRegistry.get("challenge.warmup.requests").tag("result", "ok").counter().count(), 0);
+        assertEquals(0, meterRegistry.get("challenge.warmup.requests").tag("result", "failed").counter().count(), 0);
+        assertTrue(meterRegistry.get("challenge.org-graph.size").gauge().value() > 0);
+        assertTrue(meterRegistry.get("challenge.search.index.size").gauge().value() > 0);
+
+        // Readiness flipped after the warm-up finished
+        assertTrue(warmUp.getTimeToReadyMs() > 0);
+        assertTrue(warmUp.getTimeToReadyMs() >= warmUp.getWarmUpMs());
+        assertEquals(warmUp.getTimeToReadyMs(),
+                meterRegistry.get("challenge.startup.time-to-ready").timeGauge().value(TimeUnit.MILLISECONDS), 0);
+    }
+}
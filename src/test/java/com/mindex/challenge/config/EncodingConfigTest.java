@@ -0,0 +1,84 @@
+package com.mindex.challenge.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.mindex.challenge.data.ReportingStructure;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class EncodingConfigTest {
+
+    private static final String JOHN = "16a596ae-edd3-4847-99fe-c4518e82c86f";
+
+    private String reportingStructureUrl;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Before
+    public void setup() {
+        reportingStructureUrl = "http://localhost:" + port + "/reportingStructure/{id}";
+    }
+
+    @Test
+    public void testJsonStaysTheDefault() {
+        ResponseEntity<byte[]> response = get("*/*");
+        assertTrue(MediaType.APPLICATION_JSON.isCompatibleWith(response.getHeaders().getContentType()));
+    }
+
+    @Test
+    public void testSmileAndCborAreNegotiated() throws Exception {
+        ResponseEntity<byte[]> smile = get("application/x-jackson-smile");
+        assertEquals("x-jackson-smile", smile.getHeaders().getContentType().getSubtype());
+        assertEquals(4, new ObjectMapper(new SmileFactory())
+                .readValue(smile.getBody(), ReportingStructure.class).getNumberOfReports());
+
+        ResponseEntity<byte[]> cbor = get("application/cbor");
+        assertEquals(MediaType.APPLICATION_CBOR, cbor.getHeaders().getContentType());
+        assertEquals(4, new ObjectMapper(new CBORFactory())
+                .readValue(cbor.getBody(), ReportingStructure.class).getNumberOfReports());
+    }
+
+    @Test
+    public void testColumnarFlattensTreeWithDictionaries() throws Exception {
+        ResponseEntity<byte[]> response = get(ColumnarReportingStructureConverter.MEDIA_TYPE.toString());
+        JsonNode columnar = new ObjectMapper().readTree(response.getBody());
+
+        assertEquals(4, columnar.get("numberOfReports").asInt());
+        assertEquals(5, columnar.get("employeeId").size());
+        assertEquals(JOHN, columnar.get("employeeId").get(0).asText());
+        assertEquals(-1, columnar.get("parent").get(0).asInt());
+        assertEquals("Engineering", columnar.get("departments").get(0).asText());
+        assertEquals(1, columnar.get("departments").size());
+        assertEquals(0, columnar.get("department").get(4).asInt());
+    }
+
+    private ResponseEntity<byte[]> get(String accept) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT, accept);
+        ResponseEntity<byte[]> response = restTemplate.exchange(reportingStructureUrl, HttpMethod.GET,
+                new HttpEntity<>(headers), byte[].class, JOHN);
+        assertEquals(200, response.getStatusCode().value());
+        return response;
+    }
+}
@@ -0,0 +1,98 @@
+package com.mindex.challenge.controller;
+
+import com.mindex.challenge.data.Compensation;
+import com.mindex.challenge.data.Employee;
+import com.mindex.challenge.service.impl.CompensationWriteBehind;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.LocalDate;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "challenge.compensation.write-behind.enabled=true",
+        "challenge.compensation.write-behind.flush-interval-ms=60000",
+        "challenge.compensation.write-behind.journal-dir=${java.io.tmpdir}/mindex-compensation-journal-controller-test"
+})
+public class CompensationControllerTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private CompensationWriteBehind writeBehind;
+
+    private String compensationUrl;
+
+    @Before
+    public void setup() {
+        compensationUrl = "http://localhost:" + port + "/compensation";
+    }
+
+    @Test
+    public void testBufferedUpdateIsAcceptedWithoutETag() {
+        String employeeId = createEmployee("Buffered");
+        assertEquals(HttpStatus.OK,
+                restTemplate.postForEntity(compensationUrl, compensation(employeeId, 90000), Compensation.class).getStatusCode());
+
+        ResponseEntity<Compensation> updated = put(compensation(employeeId, 95000));
+        assertEquals(HttpStatus.ACCEPTED, updated.getStatusCode());
+        assertNull(updated.getHeaders().getETag());
+        assertEquals(95000, updated.getBody().getSalary(), 0.01);
+
+        // Visible before the flush, and stored with a real version after it
+        assertEquals(95000, restTemplate.getForObject(compensationUrl + "/" + employeeId, Compensation.class).getSalary(), 0.01);
+        writeBehind.flush();
+        Compensation stored = restTemplate.getForObject(compensationUrl + "/" + employeeId, Compensation.class);
+        assertEquals(95000, stored.getSalary(), 0.01);
+        assertEquals(Long.valueOf(1), stored.getVersion());
+    }
+
+    @Test
+    public void testUpdateWithoutStoredCompensationIsRejectedBeforeAck() {
+        String employeeId = createEmployee("Uncompensated");
+
+        ResponseEntity<Compensation> rejected = put(compensation(employeeId, 50000));
+        assertFalse(rejected.getStatusCode().is2xxSuccessful());
+        assertNull(writeBehind.pending(employeeId));
+    }
+
+    private ResponseEntity<Compensation> put(Compensation compensation) {
+        return restTemplate.exchange(compensationUrl, HttpMethod.PUT, new HttpEntity<>(compensation), Compensation.class);
+    }
+
+    private String createEmployee(String lastName) {
+        Employee employee = new Employee();
+        employee.setFirstName("Write");
+        employee.setLastName(lastName);
+        employee.setDepartment("Engineering");
+        employee.setPosition("Developer");
+        return restTemplate.postForObject("http://localhost:" + port + "/employee", employee, Employee.class).getEmployeeId();
+    }
+
+    private static Compensation compensation(String employeeId, double salary) {
+        Employee reference = new Employee();
+        reference.setEmployeeId(employeeId);
+
+        Compensation compensation = new Compensation();
+        compensation.setEmployee(reference);
+        compensation.setSalary(salary);
+        compensation.setEffectiveDate(LocalDate.now());
+        return compensation;
+    }
+}
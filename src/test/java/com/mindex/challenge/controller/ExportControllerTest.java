@@ -0,0 +1,109 @@
+package com.mindex.challenge.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mindex.challenge.data.Compensation;
+import com.mindex.challenge.data.Employee;
+import com.mindex.challenge.service.ExportService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class ExportControllerTest {
+
+    private static final String JOHN = "16a596ae-edd3-4847-99fe-c4518e82c86f";
+    private static final String RINGO = "03aa1462-ffa9-4978-901b-7c001562cf6f";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private String baseUrl;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Before
+    public void setup() {
+        baseUrl = "http://localhost:" + port;
+    }
+
+    @Test
+    public void testNdjsonJoinsHierarchyAndCompensation() throws Exception {
+        Employee hire = new Employee();
+        hire.setFirstName("Brian");
+        hire.setLastName("Epstein");
+        hire.setPosition("Manager");
+        hire = restTemplate.postForObject(baseUrl + "/employee", hire, Employee.class);
+
+        Compensation compensation = new Compensation();
+        compensation.setEmployee(hire);
+        compensation.setSalary(125000);
+        compensation.setEffectiveDate(LocalDate.of(2024, 1, 1));
+        restTemplate.postForObject(baseUrl + "/compensation", compensation, Compensation.class);
+
+        ResponseEntity<String> response = restTemplate.getForEntity(baseUrl + "/export/employees", String.class);
+        assertTrue(MediaType.parseMediaType(ExportController.NDJSON).isCompatibleWith(response.getHeaders().getContentType()));
+
+        Map<String, JsonNode> rows = new HashMap<>();
+        String previous = "";
+        for (String line : response.getBody().split("\n")) {
+            JsonNode row = objectMapper.readTree(line);
+            String employeeId = row.get("employeeId").asText();
+            assertTrue("rows are ordered by employeeId", previous.compareTo(employeeId) < 0);
+            previous = employeeId;
+            rows.put(employeeId, row);
+        }
+
+        JsonNode ringo = rows.get(RINGO);
+        assertEquals(JOHN, ringo.get("managerId").asText());
+        assertEquals(1, ringo.get("depth").asInt());
+        assertTrue(rows.get(JOHN).get("managerId").isNull());
+
+        JsonNode brian = rows.get(hire.getEmployeeId());
+        assertEquals(125000, brian.get("salary").asDouble(), 0);
+        assertEquals("2024-01-01", brian.get("effectiveDate").asText());
+        assertEquals(1, brian.get("subtreeSize").asInt());
+    }
+
+    @Test
+    public void testCsvHasHeaderAndQuotesWhenNeeded() {
+        Employee hire = new Employee();
+        hire.setFirstName("Neil");
+        hire.setLastName("Aspinall");
+        hire.setPosition("Road manager, \"Nell\"");
+        restTemplate.postForObject(baseUrl + "/employee", hire, Employee.class);
+
+        ResponseEntity<String> response = restTemplate.getForEntity(baseUrl + "/export/employees?format=csv", String.class);
+        assertTrue(MediaType.parseMediaType(ExportController.CSV).isCompatibleWith(response.getHeaders().getContentType()));
+
+        String[] lines = response.getBody().split("\r\n");
+        assertEquals("employeeId,firstName,lastName,position,department,managerId,depth,subtreeSize,salary,effectiveDate",
+                lines[0]);
+        assertTrue(response.getBody().contains(",\"Road manager, \"\"Nell\"\"\","));
+    }
+
+    @Test
+    public void testFormatFromAcceptAndRejectsUnknown() {
+        assertEquals(ExportService.Format.CSV, ExportController.chooseFormat(null, "text/csv"));
+        assertEquals(ExportService.Format.NDJSON, ExportController.chooseFormat(null, "*/*"));
+        assertEquals(400, restTemplate.getForEntity(baseUrl + "/export/employees?format=xml", String.class)
+                .getStatusCode().value());
+    }
+}
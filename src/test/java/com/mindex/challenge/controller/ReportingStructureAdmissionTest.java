@@ -0,0 +1,110 @@
+package com.mindex.challenge.controller;
+
+import com.mindex.challenge.data.EmployeeDTO;
+import com.mindex.challenge.data.ReportingStructure;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.Assert.*;
+
+// John's structure costs 5; a bucket of 12 refilled at 1 per second admits two of them back to back
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "challenge.admission.enabled=true",
+        "challenge.admission.cost-per-second=1",
+        "challenge.admission.burst=12"
+})
+public class ReportingStructureAdmissionTest {
+
+    private static final String JOHN = "16a596ae-edd3-4847-99fe-c4518e82c86f";
+    private static final String PETE = "62c1084e-6e34-4630-93fd-9153afb65309";
+
+    private String reportingStructureUrl;
+    private String employeeIdUrl;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ReportingStructureAdmission admission;
+
+    @Before
+    public void setup() {
+        reportingStructureUrl = "http://localhost:" + port + "/reportingStructure/{id}";
+        employeeIdUrl = "http://localhost:" + port + "/employee/{id}";
+    }
+
+    @Test
+    public void testExpensiveRequestsAreShedPerClient() {
+        assertEquals(200, reportingStructure("greedy", JOHN).getStatusCode().value());
+        assertEquals(200, reportingStructure("greedy", JOHN).getStatusCode().value());
+
+        ResponseEntity<ReportingStructure> shed = reportingStructure("greedy", JOHN);
+        assertEquals(429, shed.getStatusCode().value());
+        assertNotNull(shed.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+
+        // A leaf is cheap enough to fit what is left, other clients have their own budget,
+        // and plain employee reads are not metered at all
+        assertEquals(200, reportingStructure("greedy", PETE).getStatusCode().value());
+        assertEquals(200, reportingStructure("polite", JOHN).getStatusCode().value());
+        assertEquals(200, restTemplate.getForEntity(employeeIdUrl, EmployeeDTO.class, JOHN).getStatusCode().value());
+    }
+
+    @Test
+    public void testClientHeaderIsOnlyTrustedFromInternalCallers() {
+        MockHttpServletRequest external = new MockHttpServletRequest();
+        external.setRemoteAddr("203.0.113.7");
+        external.addHeader("X-Client-Id", "fresh-every-time");
+        assertEquals("203.0.113.7", admission.clientKey(external));
+
+        MockHttpServletRequest local = new MockHttpServletRequest();
+        local.setRemoteAddr("127.0.0.1");
+        local.addHeader("X-Client-Id", "warm-up");
+        assertEquals("warm-up", admission.clientKey(local));
+    }
+
+    @Test
+    public void testNewClientsShareOneBucketOnceTheMapIsFull() {
+        ReportingStructureAdmission capped = new ReportingStructureAdmission();
+        ReflectionTestUtils.setField(capped, "costPerSecond", 1.0);
+        ReflectionTestUtils.setField(capped, "burst", 12);
+        ReflectionTestUtils.setField(capped, "maxClients", 4);
+        ReflectionTestUtils.setField(capped, "meterRegistry", new SimpleMeterRegistry());
+        capped.init();
+
+        long now = System.nanoTime();
+        int admitted = 0;
+        for (int i = 0; i < 100; i++) {
+            if (capped.tryAcquire("client-" + i, 12, now) == 0) {
+                admitted++;
+            }
+        }
+
+        // Four own buckets plus one shared overflow bucket, each good for one full-burst request
+        assertEquals(5, admitted);
+        assertEquals(5, capped.bucketCount());
+    }
+
+    private ResponseEntity<ReportingStructure> reportingStructure(String client, String id) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Client-Id", client);
+        return restTemplate.exchange(reportingStructureUrl, HttpMethod.GET, new HttpEntity<>(headers),
+                ReportingStructure.class, id);
+    }
+}
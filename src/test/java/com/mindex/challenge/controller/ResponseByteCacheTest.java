@@ -0,0 +1,100 @@
+package com.mindex.challenge.controller;
+
+import com.mindex.challenge.data.Employee;
+import com.mindex.challenge.data.EmployeeDTO;
+import com.mindex.challenge.data.EmployeePatch;
+import com.mindex.challenge.data.ReportingStructure;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.*;
+
+// Cached, off-heap reads must stay byte-compatible with the plain path and follow writes immediately
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "challenge.response-cache.enabled=true",
+        "challenge.org-graph.off-heap.enabled=true"
+})
+public class ResponseByteCacheTest {
+
+    private static final String JOHN = "16a596ae-edd3-4847-99fe-c4518e82c86f";
+    private static final String PETE = "62c1084e-6e34-4630-93fd-9153afb65309";
+
+    private String employeeIdUrl;
+    private String reportingStructureUrl;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Before
+    public void setup() {
+        employeeIdUrl = "http://localhost:" + port + "/employee/{id}";
+        reportingStructureUrl = "http://localhost:" + port + "/reportingStructure/{id}";
+    }
+
+    @Test
+    public void testCachedReportingStructureFollowsDescendantWrites() {
+        ReportingStructure first = restTemplate.getForObject(reportingStructureUrl, ReportingStructure.class, JOHN);
+        ReportingStructure second = restTemplate.getForObject(reportingStructureUrl, ReportingStructure.class, JOHN);
+        assertEquals(4, first.getNumberOfReports());
+        assertEquals(4, second.getNumberOfReports());
+
+        EmployeePatch retitle = new EmployeePatch();
+        retitle.setPosition("Drummer Emeritus");
+        new RestTemplate(new JdkClientHttpRequestFactory()).exchange(employeeIdUrl, HttpMethod.PATCH,
+                new HttpEntity<>(retitle), Employee.class, PETE);
+
+        ReportingStructure after = restTemplate.getForObject(reportingStructureUrl, ReportingStructure.class, JOHN);
+        EmployeeDTO ringo = after.getEmployee().getDirectReports().get(1);
+        assertEquals("Drummer Emeritus", ringo.getDirectReports().get(0).getPosition());
+
+        EmployeeDTO pete = restTemplate.getForObject(employeeIdUrl, EmployeeDTO.class, PETE);
+        assertEquals("Drummer Emeritus", pete.getPosition());
+        assertNull(pete.getDirectReports());
+    }
+
+    @Test
+    public void testGzipIsServedWhenAccepted() throws Exception {
+        HttpResponse<byte[]> response = HttpClient.newHttpClient().send(HttpRequest.newBuilder()
+                        .uri(URI.create("http://localhost:" + port + "/employee/" + JOHN))
+                        .header("Accept-Encoding", "gzip")
+                        .build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+
+        assertEquals(200, response.statusCode());
+        assertEquals("gzip", response.headers().firstValue("Content-Encoding").orElse(null));
+        String json = new String(new GZIPInputStream(new ByteArrayInputStream(response.body())).readAllBytes(),
+                StandardCharsets.UTF_8);
+        assertTrue(json.contains("\"firstName\":\"John\""));
+    }
+
+    @Test
+    public void testAcceptEncodingParsing() {
+        assertTrue(ResponseByteCache.acceptsGzip("gzip, deflate, br"));
+        assertTrue(ResponseByteCache.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+        assertFalse(ResponseByteCache.acceptsGzip("gzip;q=0"));
+        assertFalse(ResponseByteCache.acceptsGzip("identity"));
+        assertFalse(ResponseByteCache.acceptsGzip(null));
+    }
+}
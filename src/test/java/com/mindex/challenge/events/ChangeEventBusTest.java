@@ -0,0 +1,154 @@
+package com.mindex.challenge.events;
+
+import com.mindex.challenge.data.ChangeEvent;
+import com.mindex.challenge.data.Employee;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class ChangeEventBusTest {
+
+    private ChangeEventBus bus;
+
+    @Before
+    public void setup() {
+        bus = new ChangeEventBus(4);
+    }
+
+    @After
+    public void teardown() {
+        bus.shutdown();
+    }
+
+    @Test
+    public void testSequencesAreAssignedInOrder() {
+        assertEquals(1, bus.publish(event("a")).getSequence());
+        assertEquals(2, bus.publish(event("b")).getSequence());
+        assertEquals(2, bus.lastSequence());
+    }
+
+    @Test
+    public void testRingKeepsOnlyTheNewestEvents() {
+        for (int i = 0; i < 6; i++) {
+            bus.publish(event("e" + i));
+        }
+
+        assertEquals(3, bus.firstAvailableSequence());
+        assertNull(bus.eventsAfter(1));
+
+        List<ChangeEvent> retained = bus.eventsAfter(2);
+        assertEquals(4, retained.size());
+        assertEquals("e2", retained.get(0).getEmployeeId());
+        assertEquals("e5", retained.get(3).getEmployeeId());
+    }
+
+    @Test
+    public void testSubscribeReplaysBacklogThenLiveEvents() throws Exception {
+        bus.publish(event("a"));
+        bus.publish(event("b"));
+
+        List<String> received = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(2);
+        bus.subscribe(1, e -> {
+            received.add(e.getEmployeeId());
+            latch.countDown();
+        });
+        bus.publish(event("c"));
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("b", "c"), received);
+    }
+
+    @Test
+    public void testSubscribeBehindTheRingReportsGap() throws Exception {
+        for (int i = 0; i < 6; i++) {
+            bus.publish(event("e" + i));
+        }
+
+        AtomicLong gapAt = new AtomicLong();
+        List<Long> sequences = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(4);
+        bus.subscribe(0, new ChangeEventBus.Listener() {
+            @Override
+            public void onEvent(ChangeEvent event) {
+                sequences.add(event.getSequence());
+                latch.countDown();
+            }
+
+            @Override
+            public void onGap(long firstAvailableSequence) {
+                gapAt.set(firstAvailableSequence);
+            }
+        });
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(3, gapAt.get());
+        assertEquals(List.of(3L, 4L, 5L, 6L), sequences);
+    }
+
+    @Test
+    public void testConcurrentPublishersAreDeliveredInSequenceOrder() throws Exception {
+        ChangeEventBus wide = new ChangeEventBus(100000, 8);
+        int writers = 4;
+        int perWriter = 2000;
+        List<Long> sequences = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(writers * perWriter);
+        wide.subscribe(0, e -> {
+            sequences.add(e.getSequence());
+            latch.countDown();
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+        try {
+            for (int w = 0; w < writers; w++) {
+                pool.execute(() -> {
+                    for (int i = 0; i < perWriter; i++) {
+                        wide.publish(event("w"));
+                    }
+                });
+            }
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdown();
+            wide.shutdown();
+        }
+
+        // Every sequence exactly once, in order, even across queue overflows
+        List<Long> expected = new ArrayList<>();
+        for (long sequence = 1; sequence <= writers * perWriter; sequence++) {
+            expected.add(sequence);
+        }
+        assertEquals(expected, sequences);
+    }
+
+    @Test
+    public void testSlowSubscriberDoesNotHoldUpOthers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        bus.subscribe(-1, e -> release.await());
+
+        CountDownLatch fast = new CountDownLatch(2);
+        bus.subscribe(-1, e -> fast.countDown());
+        bus.publish(event("a"));
+        bus.publish(event("b"));
+
+        try {
+            assertTrue(fast.await(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private static ChangeEvent event(String employeeId) {
+        Employee employee = new Employee();
+        employee.setEmployeeId(employeeId);
+        employee.setVersion(0L);
+        return ChangeEvent.of(ChangeEvent.Type.EMPLOYEE_UPDATED, employee);
+    }
+}
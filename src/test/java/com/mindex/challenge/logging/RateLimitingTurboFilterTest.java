@@ -0,0 +1,57 @@
+package com.mindex.challenge.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RateLimitingTurboFilterTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    private LoggerContext context;
+    private RateLimitingTurboFilter filter;
+
+    @Before
+    public void setup() {
+        context = new LoggerContext();
+        filter = new RateLimitingTurboFilter();
+        filter.setContext(context);
+        filter.setLoggerName("com.mindex.challenge.controller");
+        filter.setPermitsPerSecond(10);
+        filter.setBurst(3);
+        filter.start();
+    }
+
+    @Test
+    public void testBurstThenOnePermitPerInterval() {
+        assertTrue(filter.tryAcquire(0));
+        assertTrue(filter.tryAcquire(0));
+        assertTrue(filter.tryAcquire(0));
+        assertFalse(filter.tryAcquire(0));
+
+        assertTrue(filter.tryAcquire(100 * MILLIS));
+        assertFalse(filter.tryAcquire(100 * MILLIS));
+        assertEquals(2, filter.getSuppressedCount());
+    }
+
+    @Test
+    public void testOnlyMatchingLoggersAndLevelsAreThrottled() {
+        Logger hot = context.getLogger("com.mindex.challenge.controller.EmployeeController");
+        Logger other = context.getLogger("com.mindex.challenge.DataBootstrap");
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, hot, Level.DEBUG, "msg", null, null));
+        }
+        assertEquals(FilterReply.DENY, filter.decide(null, hot, Level.DEBUG, "msg", null, null));
+
+        // isDebugEnabled() probes, WARN and other loggers never spend or need a permit
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, hot, Level.DEBUG, null, null, null));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, hot, Level.WARN, "msg", null, null));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, other, Level.DEBUG, "msg", null, null));
+    }
+}
@@ -0,0 +1,125 @@
+package com.mindex.challenge.replication;
+
+import com.mindex.challenge.ChallengeApplication;
+import com.mindex.challenge.data.Employee;
+import com.mindex.challenge.data.EmployeePatch;
+import com.mindex.challenge.data.ReportingStructure;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+
+// A leader and a follower as two application contexts, each with its own store, talking over loopback
+public class ReplicationTest {
+
+    private static final String JOHN = "16a596ae-edd3-4847-99fe-c4518e82c86f";
+    private static final String PETE = "62c1084e-6e34-4630-93fd-9153afb65309";
+
+    private static ConfigurableApplicationContext leader;
+    private static ConfigurableApplicationContext follower;
+    private static String leaderUrl;
+    private static String followerUrl;
+
+    private final RestTemplate restTemplate = new RestTemplate(new JdkClientHttpRequestFactory());
+
+    @BeforeClass
+    public static void startNodes() {
+        leader = new SpringApplicationBuilder(ChallengeApplication.class).run(
+                "--server.port=0", "--challenge.replication.role=leader", "--challenge.replication.port=0");
+        leaderUrl = "http://localhost:" + leader.getEnvironment().getProperty("local.server.port");
+
+        follower = new SpringApplicationBuilder(ChallengeApplication.class).run(
+                "--server.port=0", "--challenge.replication.role=follower",
+                "--challenge.replication.leader=127.0.0.1:" + leader.getBean(ReplicationLeader.class).port());
+        followerUrl = "http://localhost:" + follower.getEnvironment().getProperty("local.server.port");
+    }
+
+    @AfterClass
+    public static void stopNodes() {
+        if (follower != null) follower.close();
+        if (leader != null) leader.close();
+    }
+
+    @Test
+    public void testWritesOnLeaderReachFollower() {
+        Employee created = new Employee();
+        created.setFirstName("Stuart");
+        created.setLastName("Sutcliffe");
+        created.setPosition("Bassist");
+        created.setDepartment("Engineering");
+        created = restTemplate.postForObject(leaderUrl + "/employee", created, Employee.class);
+        String id = created.getEmployeeId();
+
+        Employee replicated = await(() -> get(followerUrl + "/employee/" + id, Employee.class));
+        assertEquals("Sutcliffe", replicated.getLastName());
+        // GET /employee/{id} carries no version in the body; versions are stored verbatim, so the ETags agree
+        assertEquals(restTemplate.getForEntity(leaderUrl + "/employee/" + id, Employee.class).getHeaders().getETag(),
+                restTemplate.getForEntity(followerUrl + "/employee/" + id, Employee.class).getHeaders().getETag());
+
+        EmployeePatch addReport = new EmployeePatch();
+        addReport.setAddDirectReports(List.of(id));
+        restTemplate.exchange(leaderUrl + "/employee/" + PETE, HttpMethod.PATCH, new HttpEntity<>(addReport), Employee.class);
+
+        ReportingStructure structure = await(() -> {
+            ReportingStructure current = get(followerUrl + "/reportingStructure/" + JOHN, ReportingStructure.class);
+            return current != null && current.getNumberOfReports() == 5 ? current : null;
+        });
+        assertEquals(5, structure.getNumberOfReports());
+    }
+
+    @Test
+    public void testFollowerRejectsWritesAndReportsStaleness() {
+        await(() -> get(followerUrl + "/employee/" + JOHN, Employee.class));
+
+        ResponseEntity<Employee> read = restTemplate.getForEntity(followerUrl + "/employee/" + JOHN, Employee.class);
+        long staleness = Long.parseLong(read.getHeaders().getFirst(FollowerRequestGuard.STALENESS_HEADER));
+        assertTrue(staleness <= follower.getBean(ReplicationFollower.class).getMaxStalenessMs());
+
+        Employee employee = new Employee();
+        employee.setFirstName("Not");
+        employee.setLastName("Replicated");
+        try {
+            restTemplate.postForObject(followerUrl + "/employee", employee, Employee.class);
+            fail("Follower accepted a write");
+        } catch (HttpStatusCodeException e) {
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatusCode());
+        }
+    }
+
+    private <T> T get(String url, Class<T> type) {
+        try {
+            return restTemplate.getForObject(url, type);
+        } catch (HttpStatusCodeException e) {
+            return null;
+        }
+    }
+
+    private static <T> T await(Supplier<T> probe) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            T value = probe.get();
+            if (value != null) {
+                return value;
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        throw new AssertionError("Follower did not catch up within 10s");
+    }
+}
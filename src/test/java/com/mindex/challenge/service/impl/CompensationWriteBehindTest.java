@@ -0,0 +1,103 @@
+package com.mindex.challenge.service.impl;
+
+import com.mindex.challenge.dao.CompensationRepository;
+import com.mindex.challenge.data.ChangeEvent;
+import com.mindex.challenge.data.Compensation;
+import com.mindex.challenge.data.Employee;
+import com.mindex.challenge.events.ChangeEventBus;
+import com.mindex.challenge.service.CompensationService;
+import com.mindex.challenge.service.EmployeeService;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {
+        "challenge.compensation.write-behind.enabled=true",
+        "challenge.compensation.write-behind.flush-interval-ms=60000"
+})
+public class CompensationWriteBehindTest {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private CompensationService compensationService;
+
+    @Autowired
+    private CompensationRepository compensationRepository;
+
+    @Autowired
+    private CompensationWriteBehind writeBehind;
+
+    @Autowired
+    private ChangeEventBus changeEventBus;
+
+    @Test
+    public void testUpdatesAreCoalescedAndVisibleBeforeFlush() {
+        Employee employee = new Employee();
+        employee.setFirstName("Write");
+        employee.setLastName("Behind");
+        employee.setDepartment("Engineering");
+        employee.setPosition("Developer");
+        String employeeId = employeeService.create(employee).getEmployeeId();
+
+        compensationService.create(compensation(employeeId, 100000));
+
+        compensationService.update(compensation(employeeId, 110000));
+        compensationService.update(compensation(employeeId, 120000));
+
+        // Coalesced to one pending entry, served from the buffer, not yet in the repository
+        assertEquals(1, writeBehind.pendingCount());
+        assertEquals(120000, compensationService.read(employeeId).getSalary(), 0.01);
+        assertEquals(100000, compensationRepository.findByEmployee_EmployeeId(employeeId).getSalary(), 0.01);
+
+        writeBehind.flush();
+
+        assertEquals(0, writeBehind.pendingCount());
+        assertEquals(120000, compensationRepository.findByEmployee_EmployeeId(employeeId).getSalary(), 0.01);
+    }
+
+    @Test
+    public void testFlushPublishesStoredCompensation() {
+        Employee employee = new Employee();
+        employee.setFirstName("Flushed");
+        employee.setLastName("Event");
+        employee.setDepartment("Engineering");
+        employee.setPosition("Developer");
+        String employeeId = employeeService.create(employee).getEmployeeId();
+
+        assertFalse(writeBehind.hasCompensation(employeeId));
+        compensationService.create(compensation(employeeId, 100000));
+        assertTrue(writeBehind.hasCompensation(employeeId));
+
+        compensationService.update(compensation(employeeId, 130000));
+        long before = changeEventBus.lastSequence();
+        writeBehind.flush();
+
+        List<ChangeEvent> events = changeEventBus.eventsAfter(before);
+        assertEquals(1, events.size());
+        Compensation published = events.get(0).getCompensation();
+        assertEquals(Long.valueOf(1), published.getVersion());
+        assertEquals(130000, published.getSalary(), 0.01);
+        assertEquals("Flushed", published.getEmployee().getFirstName());
+    }
+
+    private static Compensation compensation(String employeeId, double salary) {
+        Employee reference = new Employee();
+        reference.setEmployeeId(employeeId);
+
+        Compensation compensation = new Compensation();
+        compensation.setEmployee(reference);
+        compensation.setSalary(salary);
+        compensation.setEffectiveDate(LocalDate.now());
+        return compensation;
+    }
+}
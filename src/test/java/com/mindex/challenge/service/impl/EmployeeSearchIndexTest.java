@@ -0,0 +1,75 @@
+package com.mindex.challenge.service.impl;
+
+import com.mindex.challenge.data.Employee;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class EmployeeSearchIndexTest {
+
+    private EmployeeSearchIndex.Index index;
+
+    @Before
+    public void setup() {
+        index = new EmployeeSearchIndex.Index(List.of(
+                employee("1", "John", "Lennon", "Development Manager", "Engineering"),
+                employee("2", "Paul", "McCartney", "Developer I", "Engineering"),
+                employee("3", "Ringo", "Starr", "Developer V", "Engineering"),
+                employee("4", "Jonathan", "Johnson", "Sales Lead", "Sales"),
+                employee("5", "Johnny", "Cash", "Developer II", "Engineering")), true, 10_000);
+    }
+
+    @Test
+    public void testPrefixMatchesRankExactWordsAndShortNamesFirst() {
+        List<Employee> results = index.search("joh", 10);
+        assertEquals(List.of("1", "5", "4"), ids(results));
+
+        assertEquals("1", index.search("John", 10).get(0).getEmployeeId());
+    }
+
+    @Test
+    public void testEveryWordMustMatchAndFieldsAreWeighted() {
+        assertEquals(List.of("2"), ids(index.search("paul dev", 10)));
+        assertEquals(List.of("4"), ids(index.search("sales", 10)));
+        assertTrue(index.search("paul sales", 10).isEmpty());
+    }
+
+    @Test
+    public void testTrigramsMatchInsideNames() {
+        assertEquals(List.of("4"), ids(index.search("son", 10)));
+        assertTrue(index.search("on", 10).isEmpty());
+    }
+
+    @Test
+    public void testWritesReplaceTheOldTokens() {
+        index.put(employee("3", "Richard", "Starkey", "Drummer", "Engineering"));
+
+        assertTrue(index.search("ringo", 10).isEmpty());
+        assertEquals(List.of("3"), ids(index.search("richard", 10)));
+        assertEquals(List.of("6"), ids(putAndSearch(employee("6", "Pete", "Best", "Drummer", "Engineering"), "best")));
+        assertEquals(2, index.search("drummer", 10).size());
+        assertEquals(1, index.search("drummer", 1).size());
+    }
+
+    private List<Employee> putAndSearch(Employee employee, String query) {
+        index.put(employee);
+        return index.search(query, 10);
+    }
+
+    private static List<String> ids(List<Employee> employees) {
+        return employees.stream().map(Employee::getEmployeeId).toList();
+    }
+
+    private static Employee employee(String id, String firstName, String lastName, String position, String department) {
+        Employee employee = new Employee();
+        employee.setEmployeeId(id);
+        employee.setFirstName(firstName);
+        employee.setLastName(lastName);
+        employee.setPosition(position);
+        employee.setDepartment(department);
+        return employee;
+    }
+}
@@ -1,6 +1,7 @@
 package com.mindex.challenge.service.impl;
 
 import com.mindex.challenge.data.Employee;
+import com.mindex.challenge.data.EmployeePatch;
 import com.mindex.challenge.data.ReportingStructure;
 import com.mindex.challenge.data.Compensation;
 import org.junit.Before;
@@ -11,13 +12,16 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.http.*;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
 
 import static org.junit.Assert.*;
 
 import java.time.LocalDate;
+import java.util.List;
 
 @RunWith(SpringRunner.class)
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -94,6 +98,19 @@ public class EmployeeServiceImplTest {
         }
     }
 
+    // SEARCH TESTS
+
+    @Test
+    public void testSearchFindsSeedEmployeesByNameAndTitle() {
+        Employee[] byName = restTemplate.getForObject(employeeUrl + "/search?q={q}", Employee[].class, "lenn");
+        assertEquals("16a596ae-edd3-4847-99fe-c4518e82c86f", byName[0].getEmployeeId());
+        assertNull(byName[0].getDirectReports());
+
+        Employee[] byTitle = restTemplate.getForObject(employeeUrl + "/search?q={q}&limit=2", Employee[].class,
+                "developer");
+        assertEquals(2, byTitle.length);
+    }
+
     // REPORTING STRUCTURE TESTS (TASK 1)
     @Test
     public void testReportingStructureForJohnLennon() {
@@ -168,6 +185,223 @@ public class EmployeeServiceImplTest {
         }
     }
 
+    // CONDITIONAL GET TESTS
+
+    @Test
+    public void testReadEmployeeNotModified() {
+        String johnId = "16a596ae-edd3-4847-99fe-c4518e82c86f";
+        ResponseEntity<Employee> first = restTemplate.getForEntity(employeeIdUrl, Employee.class, johnId);
+        String etag = first.getHeaders().getETag();
+        assertNotNull(etag);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(etag);
+        ResponseEntity<Employee> second = restTemplate.exchange(
+                employeeIdUrl, HttpMethod.GET, new HttpEntity<>(headers), Employee.class, johnId);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, second.getStatusCode());
+        assertNull(second.getBody());
+    }
+
+    @Test
+    public void testReportingStructureETagChangesWhenSubtreeChanges() {
+        Employee report = new Employee();
+        report.setFirstName("Etag");
+        report.setLastName("Report");
+        report.setDepartment("Engineering");
+        report.setPosition("Developer");
+        Employee createdReport = restTemplate.postForEntity(employeeUrl, report, Employee.class).getBody();
+
+        Employee manager = new Employee();
+        manager.setFirstName("Etag");
+        manager.setLastName("Manager");
+        manager.setDepartment("Engineering");
+        manager.setPosition("Manager");
+        Employee reportRef = new Employee();
+        reportRef.setEmployeeId(createdReport.getEmployeeId());
+        manager.setDirectReports(List.of(reportRef));
+        Employee createdManager = restTemplate.postForEntity(employeeUrl, manager, Employee.class).getBody();
+
+        ResponseEntity<ReportingStructure> first = restTemplate.getForEntity(
+                reportingStructureUrl, ReportingStructure.class, createdManager.getEmployeeId());
+        String etag = first.getHeaders().getETag();
+        assertNotNull(etag);
+
+        HttpHeaders conditional = new HttpHeaders();
+        conditional.setIfNoneMatch(etag);
+        ResponseEntity<ReportingStructure> unchanged = restTemplate.exchange(reportingStructureUrl, HttpMethod.GET,
+                new HttpEntity<>(conditional), ReportingStructure.class, createdManager.getEmployeeId());
+        assertEquals(HttpStatus.NOT_MODIFIED, unchanged.getStatusCode());
+
+        // Updating a descendant must change the manager's reportingStructure ETag
+        createdReport.setPosition("Senior Developer");
+        HttpHeaders json = new HttpHeaders();
+        json.setContentType(MediaType.APPLICATION_JSON);
+        restTemplate.exchange(employeeIdUrl, HttpMethod.PUT, new HttpEntity<>(createdReport, json),
+                Employee.class, createdReport.getEmployeeId());
+
+        ResponseEntity<ReportingStructure> changed = restTemplate.exchange(reportingStructureUrl, HttpMethod.GET,
+                new HttpEntity<>(conditional), ReportingStructure.class, createdManager.getEmployeeId());
+        assertEquals(HttpStatus.OK, changed.getStatusCode());
+        assertNotEquals(etag, changed.getHeaders().getETag());
+        assertEquals(1, changed.getBody().getNumberOfReports());
+    }
+
+    // OPTIMISTIC CONCURRENCY TESTS
+
+    @Test
+    public void testUpdateWithStaleIfMatchIsRejected() {
+        Employee testEmployee = new Employee();
+        testEmployee.setFirstName("Concurrent");
+        testEmployee.setLastName("Writer");
+        testEmployee.setDepartment("Engineering");
+        testEmployee.setPosition("Developer");
+        Employee created = restTemplate.postForEntity(employeeUrl, testEmployee, Employee.class).getBody();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setIfMatch("\"0\"");
+
+        // First writer holds the current version and wins
+        created.setPosition("Senior Developer");
+        ResponseEntity<Employee> first = restTemplate.exchange(employeeIdUrl, HttpMethod.PUT,
+                new HttpEntity<>(created, headers), Employee.class, created.getEmployeeId());
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertEquals(Long.valueOf(1), first.getBody().getVersion());
+        assertEquals("\"1\"", first.getHeaders().getETag());
+
+        // Second writer read the same version and must not silently overwrite
+        created.setPosition("Architect");
+        ResponseEntity<String> second = restTemplate.exchange(employeeIdUrl, HttpMethod.PUT,
+                new HttpEntity<>(created, headers), String.class, created.getEmployeeId());
+        assertEquals(HttpStatus.CONFLICT, second.getStatusCode());
+
+        Employee current = restTemplate.getForEntity(employeeIdUrl, Employee.class, created.getEmployeeId()).getBody();
+        assertEquals("Senior Developer", current.getPosition());
+    }
+
+    @Test
+    public void testMalformedIfMatchIsBadRequest() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set(HttpHeaders.IF_MATCH, "\"not-a-version\"");
+
+        Employee employee = restTemplate.getForEntity(employeeIdUrl, Employee.class, "16a596ae-edd3-4847-99fe-c4518e82c86f")
+                .getBody();
+        ResponseEntity<String> response = restTemplate.exchange(employeeIdUrl, HttpMethod.PUT,
+                new HttpEntity<>(employee, headers), String.class, "16a596ae-edd3-4847-99fe-c4518e82c86f");
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    // PATCH TESTS
+
+    @Test
+    public void testPatchWritesOnlyChangedFieldsAndReportingLines() {
+        // The default JDK URLConnection factory cannot send PATCH
+        RestTemplate patchTemplate = new RestTemplate(new JdkClientHttpRequestFactory());
+
+        Employee report = new Employee();
+        report.setFirstName("Patch");
+        report.setLastName("Report");
+        report.setDepartment("Engineering");
+        report.setPosition("Developer");
+        Employee createdReport = restTemplate.postForEntity(employeeUrl, report, Employee.class).getBody();
+
+        Employee manager = new Employee();
+        manager.setFirstName("Patch");
+        manager.setLastName("Manager");
+        manager.setDepartment("Engineering");
+        manager.setPosition("Manager");
+        Employee createdManager = restTemplate.postForEntity(employeeUrl, manager, Employee.class).getBody();
+
+        EmployeePatch addReport = new EmployeePatch();
+        addReport.setAddDirectReports(List.of(createdReport.getEmployeeId()));
+        Employee withReport = patchTemplate.exchange(employeeIdUrl, HttpMethod.PATCH,
+                new HttpEntity<>(addReport), Employee.class, createdManager.getEmployeeId()).getBody();
+
+        assertEquals(Long.valueOf(1), withReport.getVersion());
+        assertEquals(1, withReport.getDirectReports().size());
+        assertEquals(1, restTemplate.getForEntity(reportingStructureUrl, ReportingStructure.class,
+                createdManager.getEmployeeId()).getBody().getNumberOfReports());
+
+        EmployeePatch retitle = new EmployeePatch();
+        retitle.setPosition("Director");
+        Employee retitled = patchTemplate.exchange(employeeIdUrl, HttpMethod.PATCH,
+                new HttpEntity<>(retitle), Employee.class, createdManager.getEmployeeId()).getBody();
+
+        assertEquals("Director", retitled.getPosition());
+        assertEquals("Patch", retitled.getFirstName());
+        assertEquals("Engineering", retitled.getDepartment());
+        assertEquals(1, retitled.getDirectReports().size());
+
+        EmployeePatch removeReport = new EmployeePatch();
+        removeReport.setRemoveDirectReports(List.of(createdReport.getEmployeeId()));
+        patchTemplate.exchange(employeeIdUrl, HttpMethod.PATCH,
+                new HttpEntity<>(removeReport), Employee.class, createdManager.getEmployeeId());
+
+        assertEquals(0, restTemplate.getForEntity(reportingStructureUrl, ReportingStructure.class,
+                createdManager.getEmployeeId()).getBody().getNumberOfReports());
+    }
+
+    @Test
+    public void testEmptyPatchStillChecksIfMatch() {
+        RestTemplate patchTemplate = new RestTemplate(new JdkClientHttpRequestFactory());
+
+        Employee employee = new Employee();
+        employee.setFirstName("Empty");
+        employee.setLastName("Patch");
+        employee.setDepartment("Engineering");
+        employee.setPosition("Developer");
+        String id = restTemplate.postForEntity(employeeUrl, employee, Employee.class).getBody().getEmployeeId();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setIfMatch("\"7\"");
+        try {
+            patchTemplate.exchange(employeeIdUrl, HttpMethod.PATCH, new HttpEntity<>(new EmployeePatch(), headers),
+                    Employee.class, id);
+            fail("Expected a version conflict for a stale If-Match");
+        } catch (HttpClientErrorException e) {
+            assertEquals(HttpStatus.CONFLICT, e.getStatusCode());
+        }
+
+        headers.setIfMatch("\"0\"");
+        assertEquals(HttpStatus.OK, patchTemplate.exchange(employeeIdUrl, HttpMethod.PATCH,
+                new HttpEntity<>(new EmployeePatch(), headers), Employee.class, id).getStatusCode());
+    }
+
+    @Test
+    public void testPatchSwappingReportsIsOneWrite() {
+        RestTemplate patchTemplate = new RestTemplate(new JdkClientHttpRequestFactory());
+
+        String[] ids = new String[3];
+        for (int i = 0; i < ids.length; i++) {
+            Employee employee = new Employee();
+            employee.setFirstName("Swap");
+            employee.setLastName("Employee" + i);
+            employee.setDepartment("Engineering");
+            employee.setPosition(i == 0 ? "Manager" : "Developer");
+            ids[i] = restTemplate.postForEntity(employeeUrl, employee, Employee.class).getBody().getEmployeeId();
+        }
+
+        EmployeePatch addFirst = new EmployeePatch();
+        addFirst.setAddDirectReports(List.of(ids[1]));
+        patchTemplate.exchange(employeeIdUrl, HttpMethod.PATCH, new HttpEntity<>(addFirst), Employee.class, ids[0]);
+
+        EmployeePatch swap = new EmployeePatch();
+        swap.setRemoveDirectReports(List.of(ids[1]));
+        swap.setAddDirectReports(List.of(ids[2]));
+        Employee swapped = patchTemplate.exchange(employeeIdUrl, HttpMethod.PATCH,
+                new HttpEntity<>(swap), Employee.class, ids[0]).getBody();
+
+        // One version step for the whole patch, not one per half
+        assertEquals(Long.valueOf(2), swapped.getVersion());
+        assertEquals(1, swapped.getDirectReports().size());
+        assertEquals(ids[2], swapped.getDirectReports().get(0).getEmployeeId());
+        assertEquals(1, restTemplate.getForEntity(reportingStructureUrl, ReportingStructure.class, ids[0])
+                .getBody().getNumberOfReports());
+    }
+
     // COMPENSATION TESTS (TASK 2)
     
     @Test
@@ -0,0 +1,118 @@
+package com.mindex.challenge.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mindex.challenge.data.Employee;
+import com.mindex.challenge.data.EmployeeDTO;
+import com.mindex.challenge.data.ReportingStructure;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.Assert.*;
+
+public class OffHeapOrgStorageTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private List<Employee> employees;
+    private OrgGraph.Snapshot heap;
+    private OrgGraph.Snapshot offHeap;
+
+    @Before
+    public void setup() {
+        // 40 employees in a fan-out of 3 so the string arena and id table see some volume
+        employees = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            employees.add(employee(i));
+        }
+        for (int i = 1; i < 40; i++) {
+            Employee manager = employees.get((i - 1) / 3);
+            Employee stub = new Employee();
+            stub.setEmployeeId(employees.get(i).getEmployeeId());
+            manager.getDirectReports().add(stub);
+        }
+
+        heap = new OrgGraph.Snapshot(employees);
+        offHeap = new OrgGraph.Snapshot(employees, capacity -> new OffHeapOrgStorage(capacity, null),
+                new LongAdder(), new LongAdder());
+    }
+
+    @Test
+    public void testOffHeapMatchesHeap() {
+        assertEquals(heap.size(), offHeap.size());
+        for (Employee employee : employees) {
+            String id = employee.getEmployeeId();
+            assertEquals(heap.indexOf(id), offHeap.indexOf(id));
+            assertEquals(heap.subtreeVersion(id), offHeap.subtreeVersion(id));
+        }
+        assertEquals("Ünïcode 7", offHeap.get(employees.get(7).getEmployeeId()).getLastName());
+        assertNull(offHeap.get(employees.get(8).getEmployeeId()).getPosition());
+
+        int root = offHeap.indexOf(employees.get(0).getEmployeeId());
+        assertEquals(39, EmployeeServiceImpl.countReports(offHeap, root));
+    }
+
+    @Test
+    public void testMappedStorageSurvivesGrowthAndRewrites() {
+        OrgGraph.Snapshot mapped = new OrgGraph.Snapshot(employees,
+                capacity -> new OffHeapOrgStorage(capacity, folder.getRoot().toPath()), new LongAdder(), new LongAdder());
+
+        for (int i = 40; i < 100; i++) {
+            assertTrue(mapped.apply(employee(i)));
+        }
+        Employee renamed = employee(5);
+        renamed.getDirectReports().addAll(employees.get(5).getDirectReports());
+        renamed.setFirstName("Renamed");
+        assertTrue(mapped.apply(renamed));
+
+        assertEquals(100, mapped.size());
+        assertEquals("Renamed", mapped.get(employees.get(5).getEmployeeId()).getFirstName());
+        assertEquals("first-99", mapped.get("employee-99").getFirstName());
+        assertEquals(0, folder.getRoot().list().length);
+    }
+
+    @Test
+    public void testFlyweightJsonMatchesJackson() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        OrgGraph orgGraph = new OrgGraph();
+        ReflectionTestUtils.setField(orgGraph, "snapshot", offHeap);
+        OrgJsonWriter writer = new OrgJsonWriter();
+        ReflectionTestUtils.setField(writer, "orgGraph", orgGraph);
+        ReflectionTestUtils.setField(writer, "objectMapper", objectMapper);
+
+        String id = employees.get(1).getEmployeeId();
+        int row = heap.indexOf(id);
+        ReportingStructure expected = new ReportingStructure(
+                EmployeeServiceImpl.convertToDTO(heap, row), EmployeeServiceImpl.countReports(heap, row));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.writeReportingStructure(id, out);
+        assertEquals(objectMapper.writeValueAsString(expected), out.toString(StandardCharsets.UTF_8));
+
+        EmployeeDTO dto = EmployeeServiceImpl.convertToDTO(heap, row);
+        dto.setDirectReports(null);
+        out.reset();
+        writer.writeEmployee(id, out);
+        assertEquals(objectMapper.writeValueAsString(dto), out.toString(StandardCharsets.UTF_8));
+    }
+
+    private static Employee employee(int i) {
+        Employee employee = new Employee();
+        employee.setEmployeeId("employee-" + i);
+        employee.setFirstName("first-" + i);
+        employee.setLastName("Ünïcode " + i);
+        employee.setPosition(i % 4 == 0 ? null : "Position " + (i % 4));
+        employee.setDepartment("Department " + (i % 3));
+        employee.setVersion((long) i);
+        employee.setDirectReports(new ArrayList<>());
+        return employee;
+    }
+}
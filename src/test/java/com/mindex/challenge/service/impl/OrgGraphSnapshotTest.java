@@ -0,0 +1,120 @@
+package com.mindex.challenge.service.impl;
+
+import com.mindex.challenge.data.Employee;
+import com.mindex.challenge.data.EmployeeDTO;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class OrgGraphSnapshotTest {
+
+    private OrgGraph.Snapshot snapshot;
+
+    @Before
+    public void setup() {
+        // a -> (b, c), b -> (d, missing, b), c -> (d)
+        snapshot = new OrgGraph.Snapshot(List.of(
+                employee("a", "Engineering", "b", "c"),
+                employee("b", "Engineering", "d", "missing", "b"),
+                employee("c", "Sales", "d"),
+                employee("d", "Sales")));
+    }
+
+    @Test
+    public void testCsrDropsUnknownAndSelfEdges() {
+        int b = snapshot.indexOf("b");
+        assertEquals(1, snapshot.endEdge(b) - snapshot.firstEdge(b));
+        assertEquals("d", snapshot.employeeId(snapshot.edgeTarget(snapshot.firstEdge(b))));
+        assertEquals(-1, snapshot.indexOf("missing"));
+        assertEquals("Sales", snapshot.department(snapshot.indexOf("c")));
+    }
+
+    @Test
+    public void testTraversalCountsSharedReportOnce() {
+        int a = snapshot.indexOf("a");
+        assertEquals(3, EmployeeServiceImpl.countReports(snapshot, a));
+
+        EmployeeDTO dto = EmployeeServiceImpl.convertToDTO(snapshot, a);
+        assertEquals(2, dto.getDirectReports().size());
+        assertEquals("d", dto.getDirectReports().get(0).getDirectReports().get(0).getEmployeeId());
+        assertTrue(dto.getDirectReports().get(1).getDirectReports().isEmpty());
+    }
+
+    @Test
+    public void testSubtreeSizeIsAnUpperBoundCappedAtSize() {
+        // d is reachable through both b and c, so a's estimate counts it twice and is capped at 4 rows
+        assertEquals(4, snapshot.subtreeSize("a"));
+        assertEquals(2, snapshot.subtreeSize("b"));
+        assertEquals(1, snapshot.subtreeSize("d"));
+        assertEquals(0, snapshot.subtreeSize("missing"));
+    }
+
+    @Test
+    public void testGetMaterializesStoredShape() {
+        Employee a = snapshot.get("a");
+        assertEquals("first-a", a.getFirstName());
+        assertEquals(2, a.getDirectReports().size());
+        assertEquals("c", a.getDirectReports().get(1).getEmployeeId());
+        assertNull(snapshot.get("missing"));
+    }
+
+    @Test
+    public void testSubtreeVersionFollowsAttributeWrites() {
+        long before = snapshot.subtreeVersion("a");
+
+        Employee d = employee("d", "Marketing");
+        d.setVersion(1L);
+        assertTrue(snapshot.apply(d));
+
+        assertNotEquals(before, snapshot.subtreeVersion("a"));
+        assertEquals(1L, snapshot.version("d"));
+        assertEquals("Marketing", snapshot.get("d").getDepartment());
+    }
+
+    @Test
+    public void testOlderVersionDoesNotOverwriteNewer() {
+        Employee newer = employee("d", "Marketing");
+        newer.setVersion(2L);
+        assertTrue(snapshot.apply(newer));
+
+        // Stale even though its reports differ: nothing to apply and nothing to rebuild
+        Employee older = employee("d", "Sales", "a");
+        older.setVersion(1L);
+        assertTrue(snapshot.apply(older));
+
+        assertEquals(2L, snapshot.version("d"));
+        assertEquals("Marketing", snapshot.get("d").getDepartment());
+    }
+
+    @Test
+    public void testNewLeafIsAppendedButNewEdgesAreRejected() {
+        assertTrue(snapshot.apply(employee("e", "Sales")));
+        assertEquals(5, snapshot.size());
+        assertEquals(0, EmployeeServiceImpl.countReports(snapshot, snapshot.indexOf("e")));
+
+        assertFalse(snapshot.apply(employee("f", "Sales", "a")));
+        assertFalse(snapshot.apply(employee("c", "Sales", "e")));
+    }
+
+    private static Employee employee(String id, String department, String... reports) {
+        Employee employee = new Employee();
+        employee.setEmployeeId(id);
+        employee.setFirstName("first-" + id);
+        employee.setDepartment(department);
+        employee.setVersion(0L);
+        if (reports.length > 0) {
+            List<Employee> stubs = new ArrayList<>();
+            for (String report : reports) {
+                Employee stub = new Employee();
+                stub.setEmployeeId(report);
+                stubs.add(stub);
+            }
+            employee.setDirectReports(stubs);
+        }
+        return employee;
+    }
+}
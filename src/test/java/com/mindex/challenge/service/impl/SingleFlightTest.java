@@ -0,0 +1,83 @@
+package com.mindex.challenge.service.impl;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    @Test
+    public void testConcurrentCallersShareOneExecution() throws Exception {
+        SingleFlight<String, String> flights = new SingleFlight<>();
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = runConcurrently(() -> flights.execute("john", () -> {
+            executions.incrementAndGet();
+            release.await();
+            return "structure";
+        }), flights, "john", release);
+
+        for (Future<String> result : results) {
+            assertEquals("structure", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, executions.get());
+        assertEquals(1, flights.executedCount());
+        assertEquals(CALLERS - 1, flights.coalescedCount());
+
+        // Nothing is retained once the flight lands
+        assertEquals("again", flights.execute("john", () -> "again"));
+        assertEquals(2, flights.executedCount());
+    }
+
+    @Test
+    public void testFailureIsSharedWithWaiters() throws Exception {
+        SingleFlight<String, String> flights = new SingleFlight<>();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = runConcurrently(() -> flights.execute("ringo", () -> {
+            release.await();
+            throw new IOException("render failed");
+        }), flights, "ringo", release);
+
+        for (Future<String> result : results) {
+            try {
+                result.get(5, TimeUnit.SECONDS);
+                fail("Expected the leader's failure");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof IOException);
+            }
+        }
+    }
+
+    // Starts CALLERS tasks, waits until all but the leader are parked on the flight, then releases it
+    private static List<Future<String>> runConcurrently(Callable<String> task, SingleFlight<String, String> flights,
+                                                        String key, CountDownLatch release) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(pool.submit(task));
+            while (!flights.isRunning(key)) {
+                Thread.sleep(1);
+            }
+            for (int i = 1; i < CALLERS; i++) {
+                results.add(pool.submit(task));
+            }
+            while (flights.coalescedCount() < CALLERS - 1) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+            return results;
+        } finally {
+            pool.shutdown();
+        }
+    }
+}